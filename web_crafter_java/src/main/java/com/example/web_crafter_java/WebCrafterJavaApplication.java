@@ -3,8 +3,10 @@ package com.example.web_crafter_java;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.ComponentScan;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling // 저장 버퍼 flush 등 주기 작업용
 @ComponentScan(basePackages = "com.example.web_crafter_java") // 👈 프로젝트 전체를 강제로 훑게 만듭니다. [cite: 2026-01-19]
 public class WebCrafterJavaApplication {
     public static void main(String[] args) {
@@ -0,0 +1,15 @@
+package com.example.web_crafter_java.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import lombok.Data;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "webcrafter.archive") // yml의 webcrafter.archive 설정
+public class ArchiveProperties {
+    private int maxPages = 500;                         // 가져오기 한 번에 허용하는 최대 페이지 수
+    private long maxEntryBytes = 16L * 1024 * 1024;     // zip 안 파일 하나(압축 해제 후) 최대 크기
+    private long maxTotalBytes = 64L * 1024 * 1024;     // zip 전체(압축 해제 후) 최대 크기
+    private int importBatchSize = 20;                   // 페이지 묶음 INSERT 크기
+}
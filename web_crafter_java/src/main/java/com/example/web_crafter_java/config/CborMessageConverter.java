@@ -0,0 +1,98 @@
+package com.example.web_crafter_java.config;
+
+import com.example.web_crafter_java.dto.CollabOp;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Map;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.converter.AbstractMessageConverter;
+import org.springframework.messaging.converter.MessageConversionException;
+import org.springframework.util.MimeType;
+
+/**
+ * ✅ 협업 메시지용 CBOR(바이너리) 변환기 (JSON 변환기 앞에 등록, content-type이 맞을 때만 동작)
+ * - content-type: application/octet-stream;codec=cbor
+ *   → Spring STOMP는 octet-stream 계열만 바이너리 WebSocket 프레임으로 보내므로 이 타입을 씀 (SockJS는 항상 텍스트 → JSON 유지)
+ * - CollabOp는 짧은 키(s, t, b ...)로, 좌표/seq는 정수 그대로 → 키 이름 반복과 숫자 문자열화가 없어짐
+ * - ObjectMapper 설정(모듈 등)은 Spring 공용 mapper를 그대로 복사해서 씀
+ */
+public class CborMessageConverter extends AbstractMessageConverter {
+
+    public static final MimeType CBOR = new MimeType("application", "octet-stream", Map.of("codec", "cbor"));
+
+    private final ObjectMapper cborMapper;
+
+    public CborMessageConverter(ObjectMapper objectMapper) {
+        super(CBOR);
+        setStrictContentTypeMatch(true); // content-type 없는 프레임은 JSON 변환기로
+        this.cborMapper = objectMapper.copyWith(new CBORFactory()).addMixIn(CollabOp.class, CollabOpKeys.class);
+    }
+
+    // octet-stream 이지만 codec=cbor 인 것만 (그냥 octet-stream은 기본 byte[] 변환기 몫)
+    @Override
+    protected boolean supportsMimeType(MessageHeaders headers) {
+        MimeType mimeType = getMimeType(headers);
+        return mimeType != null && super.supportsMimeType(headers) && "cbor".equals(mimeType.getParameter("codec"));
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return true;
+    }
+
+    @Override
+    protected Object convertFromInternal(Message<?> message, Class<?> targetClass, Object conversionHint) {
+        Object payload = message.getPayload();
+        if (!(payload instanceof byte[] bytes)) return null;
+        try {
+            return cborMapper.readValue(bytes, javaType(targetClass, conversionHint));
+        } catch (IOException e) {
+            throw new MessageConversionException(message, "CBOR 메시지를 읽을 수 없습니다: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    protected Object convertToInternal(Object payload, MessageHeaders headers, Object conversionHint) {
+        try {
+            return cborMapper.writeValueAsBytes(payload);
+        } catch (IOException e) {
+            throw new MessageConversionException("CBOR 변환 실패: " + e.getMessage(), e);
+        }
+    }
+
+    // @Payload 파라미터의 제네릭 타입까지 반영 (List<CollabOp> 등)
+    private JavaType javaType(Class<?> targetClass, Object conversionHint) {
+        if (conversionHint instanceof MethodParameter param) {
+            Type type = param.getNestedGenericParameterType();
+            return cborMapper.getTypeFactory().constructType(type);
+        }
+        return cborMapper.getTypeFactory().constructType(targetClass);
+    }
+
+    // CBOR 전용 짧은 키 (JSON 쪽은 원래 이름 그대로) — 클라이언트 LDEView의 COLLAB_KEYS와 짝
+    abstract static class CollabOpKeys {
+        @JsonProperty("s") Long seq;
+        @JsonProperty("t") String type;
+        @JsonProperty("p") String pageName;
+        @JsonProperty("m") String mode;
+        @JsonProperty("b") String blockId;
+        @JsonProperty("x") Double x;
+        @JsonProperty("y") Double y;
+        @JsonProperty("np") String newParentId;
+        @JsonProperty("in") String inputName;
+        @JsonProperty("f") String field;
+        @JsonProperty("v") JsonNode value;
+        @JsonProperty("bl") JsonNode block;
+        @JsonProperty("u") String senderId;
+        @JsonProperty("d") Boolean drag;
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.web_crafter_java.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import lombok.Data;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "webcrafter.collab") // yml의 webcrafter.collab 설정
+public class CollabProperties {
+    private boolean enabled = true;          // false면 기존처럼 받은 메시지를 그대로 중계만 함
+    private long snapshotIntervalMs = 5000;  // 변경된 문서를 userWeb_pages(저장 버퍼)로 내려쓰는 간격
+    private long idleEvictMs = 600000;       // 이 시간 동안 op가 없는 프로젝트 문서는 메모리에서 내림
+    private long broadcastTickMs = 33;       // 중계 프레임을 묶는 간격 (CollabBroadcaster)
+    private int recentOps = 1000;            // 프로젝트마다 들고 있는 최근 확정 op 수 (늦게 들어온/재연결 클라이언트 따라잡기용)
+    private boolean journalEnabled = true;           // op 저널 (서버가 죽어도 페이지에 아직 안 내려간 op를 시작 시 복구)
+    private String journalDir = "./collab-journal";  // 저널 세그먼트 디렉터리 ({journalDir}/{webId}/...)
+    private int journalSegmentBytes = 4 * 1024 * 1024; // 세그먼트 파일 하나 크기 (차면 새 파일로)
+}
@@ -0,0 +1,38 @@
+package com.example.web_crafter_java.config;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import com.example.web_crafter_java.service.CollabBroadcaster;
+
+// ✅ 협업 주소(/topic/project/{webId}/block-updates[.cbor]) 구독자 수 추적 → 구독자가 있는 형식만 인코딩해서 중계
+@Component
+public class CollabSubscriptionListener {
+
+    private final CollabBroadcaster collabBroadcaster;
+
+    public CollabSubscriptionListener(CollabBroadcaster collabBroadcaster) {
+        this.collabBroadcaster = collabBroadcaster;
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        SimpMessageHeaderAccessor acc = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        collabBroadcaster.onSubscribe(acc.getSessionId(), acc.getSubscriptionId(), acc.getDestination());
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        SimpMessageHeaderAccessor acc = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        collabBroadcaster.onUnsubscribe(acc.getSessionId(), acc.getSubscriptionId());
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        collabBroadcaster.onDisconnect(event.getSessionId());
+    }
+}
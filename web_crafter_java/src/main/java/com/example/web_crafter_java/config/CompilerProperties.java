@@ -0,0 +1,14 @@
+package com.example.web_crafter_java.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import lombok.Data;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "webcrafter.compiler") // yml의 webcrafter.compiler 설정
+public class CompilerProperties {
+    private boolean enabled = true;
+    private long maxFragmentWeightBytes = 32L * 1024 * 1024; // 블록 subtree별 컴파일 결과 캐시 최대 크기
+    private int maxDepth = 2000; // 블록 중첩(next 체인 포함) 최대 깊이 (너무 깊으면 거부)
+}
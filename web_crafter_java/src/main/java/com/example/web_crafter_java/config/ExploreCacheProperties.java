@@ -0,0 +1,14 @@
+package com.example.web_crafter_java.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import lombok.Data;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "webcrafter.explore-cache") // yml의 webcrafter.explore-cache 설정
+public class ExploreCacheProperties {
+    private boolean enabled = true;
+    private long ttlMs = 3000;      // 같은 탐색 응답을 재사용하는 시간
+    private int maxEntries = 1000;  // 검색어/페이지 조합 최대 개수
+}
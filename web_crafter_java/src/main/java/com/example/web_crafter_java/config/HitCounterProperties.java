@@ -0,0 +1,15 @@
+package com.example.web_crafter_java.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import lombok.Data;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "webcrafter.hit-counter") // yml의 webcrafter.hit-counter 설정
+public class HitCounterProperties {
+    private boolean enabled = true;             // false면 기존처럼 조회마다 UPDATE
+    private long flushIntervalMs = 5000;        // 모아둔 조회수를 DB에 내려쓰는 간격
+    private long dedupeWindowMs = 30 * 60 * 1000; // 같은 사람이 이 시간 안에 다시 봐도 1회로
+    private int maxTrackedViews = 200000;       // 중복 판별용으로 기억하는 (사람, 프로젝트) 최대 수
+}
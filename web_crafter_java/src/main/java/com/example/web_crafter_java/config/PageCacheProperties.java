@@ -0,0 +1,15 @@
+package com.example.web_crafter_java.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import lombok.Data;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "webcrafter.page-cache") // yml의 webcrafter.page-cache 설정
+public class PageCacheProperties {
+    private boolean enabled = true;
+    private long maxWeightBytes = 64L * 1024 * 1024; // 페이지 본문 캐시 최대 크기 (대략 바이트)
+    private long maxListWeightBytes = 4L * 1024 * 1024; // 페이지 목록 캐시 최대 크기
+    private long maxPreviewWeightBytes = 32L * 1024 * 1024; // 탐색 썸네일(원문 + gzip) 캐시 최대 크기
+}
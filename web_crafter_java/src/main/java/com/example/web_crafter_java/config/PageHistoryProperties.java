@@ -0,0 +1,15 @@
+package com.example.web_crafter_java.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import lombok.Data;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "webcrafter.history") // yml의 webcrafter.history 설정
+public class PageHistoryProperties {
+    private boolean enabled = true;
+    private int snapshotEvery = 20;            // 히스토리 N개마다 전체 스냅샷 (복원 시 delta 최대 N-1개)
+    private int retainDays = 30;               // 이보다 오래된 구간은 마지막 스냅샷만 남기고 정리
+    private long compactIntervalMs = 3600000;  // 정리 작업 주기
+}
@@ -0,0 +1,15 @@
+package com.example.web_crafter_java.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import lombok.Data;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "webcrafter.publish") // yml의 webcrafter.publish 설정
+public class PublishProperties {
+    private String rootDir = "./published";  // 배포 결과(정적 파일)를 쓰는 디렉터리
+    private int keepVersions = 3;            // 프로젝트마다 남겨둘 이전 배포 버전 수 (현재 포함)
+    private long latestMaxAgeSeconds = 60;   // /site/{webId}/{page} (최신 버전 주소) 캐시 시간
+    private boolean sendfile = true;         // Tomcat sendfile(zero-copy) 사용 여부
+}
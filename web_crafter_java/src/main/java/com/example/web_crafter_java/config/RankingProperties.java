@@ -0,0 +1,15 @@
+package com.example.web_crafter_java.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import lombok.Data;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "webcrafter.ranking") // yml의 webcrafter.ranking 설정
+public class RankingProperties {
+    private double halfLifeHours = 24;      // trending: 이 시간이 지나면 조회/리메이크 점수가 절반
+    private double remixWeight = 10;        // 리메이크 1번 = 조회 몇 번으로 칠지
+    private int maxTracked = 5000;          // 순위표마다 들고 있는 최대 프로젝트 수 (top-K)
+    private long reloadIntervalMs = 300000; // popular 순위표를 DB 기준으로 다시 맞추는 주기
+}
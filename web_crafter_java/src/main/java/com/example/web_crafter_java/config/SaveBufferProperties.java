@@ -0,0 +1,14 @@
+package com.example.web_crafter_java.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import lombok.Data;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "webcrafter.save-buffer") // yml의 webcrafter.save-buffer 설정
+public class SaveBufferProperties {
+    private boolean enabled = true;      // false면 기존처럼 저장 즉시 UPDATE
+    private long flushIntervalMs = 2000; // 주기적으로 DB에 내려쓰는 간격
+    private int maxPending = 500;        // 대기 중인 페이지가 이 수를 넘으면 즉시 flush
+}
@@ -32,7 +32,7 @@ public class SecurityConfig {
             
             .authorizeHttpRequests(auth -> auth
                 // 🚀 웹소켓 통로를 최상단에서 허용 (이미 잘 되어 있지만 순서 보장)
-                .requestMatchers("/wsproject/**").permitAll() 
+                .requestMatchers("/wsproject/**", "/wsproject-ws").permitAll() 
                 .requestMatchers("/api/member/**").permitAll()
                 .requestMatchers(HttpMethod.GET, "/api/projects/*/data").permitAll()
                 .requestMatchers("/api/login", "/api/register").permitAll()
@@ -1,10 +1,13 @@
 package com.example.web_crafter_java.config;
 
 import java.security.Principal;
+import java.util.List;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.converter.MessageConverter;
 import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.messaging.simp.stomp.StompCommand;
@@ -16,10 +19,15 @@ import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
 import org.springframework.web.socket.server.support.HttpSessionHandshakeInterceptor;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 @Configuration
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    @Autowired
+    private ObjectMapper objectMapper; // Spring이 관리하는 공용 mapper
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
         ThreadPoolTaskScheduler te = new ThreadPoolTaskScheduler();
@@ -45,6 +53,18 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
                 .setAllowedOriginPatterns("*")
                 .addInterceptors(new HttpSessionHandshakeInterceptor())
                 .withSockJS();
+
+        // ✅ SockJS 없는 순수 WebSocket 주소 (SockJS는 텍스트 프레임만 → 바이너리(CBOR) 협업 메시지는 여기로)
+        registry.addEndpoint("/wsproject-ws")
+                .setAllowedOriginPatterns("*")
+                .addInterceptors(new HttpSessionHandshakeInterceptor());
+    }
+
+    // ✅ content-type이 application/octet-stream;codec=cbor 인 메시지만 CBOR로, 나머지는 기본(JSON 등) 변환기
+    @Override
+    public boolean configureMessageConverters(List<MessageConverter> messageConverters) {
+        messageConverters.add(new CborMessageConverter(objectMapper));
+        return true; // 기본 변환기도 뒤에 그대로 추가
     }
 
     // ✅ CONNECT 때 x-user-id를 Principal로 세팅해야 /user/queue 가 “유저별”로 정확히 감
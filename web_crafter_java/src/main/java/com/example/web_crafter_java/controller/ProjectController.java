@@ -1,19 +1,32 @@
 package com.example.web_crafter_java.controller;
 
 import com.example.web_crafter_java.config.UserAdapter;
+import com.example.web_crafter_java.dto.PagePatchReq;
+import com.example.web_crafter_java.dto.PageSaveReq;
 import com.example.web_crafter_java.dto.UserWebPage;
+import com.example.web_crafter_java.service.PageConflictException;
+import com.example.web_crafter_java.service.ProjectArchiveService;
+import com.example.web_crafter_java.service.ProjectPreview;
 import com.example.web_crafter_java.service.ProjectService;
-import com.fasterxml.jackson.databind.ObjectMapper;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpSession;
 
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 
 @RestController
@@ -23,6 +36,11 @@ public class ProjectController {
     @Autowired
     private ProjectService projectService;
 
+    @Autowired
+    private ProjectArchiveService projectArchiveService;
+
+    private static final int EXPLORE_MAX_SIZE = 100; // 탐색 목록 한 번에 최대 개수 (size+1 조회, 캐시 키 종류 제한)
+
 @PostMapping("/create")
 public ResponseEntity<?> create(HttpSession session) {
 
@@ -63,12 +81,27 @@ public ResponseEntity<?> create(HttpSession session) {
         public ResponseEntity<?> getProjectData(
                 @PathVariable Integer webId,
                 // 1. URL 파라미터에서 pageName을 읽어옵니다. (없으면 기본값 "index")
-                @RequestParam(value = "pageName") String pageName
+                @RequestParam(value = "pageName") String pageName,
+                @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
         ) {
             try {
-                // 2. 이제 정의된 pageName 변수를 서비스에 넘겨줄 수 있습니다.
+                // 2. 클라이언트가 가진 버전과 같으면 본문(blob) 안 읽고 304
+                if (ifNoneMatch != null) {
+                    String etag = projectService.getPageETag(webId, pageName);
+                    if (etag != null && etagMatches(ifNoneMatch, etag)) {
+                        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                                .eTag(etag)
+                                .cacheControl(CacheControl.noCache())
+                                .build();
+                    }
+                }
+
+                // 3. 이제 정의된 pageName 변수를 서비스에 넘겨줄 수 있습니다.
                 com.example.web_crafter_java.dto.UserWebPage data = projectService.getProjectPageData(webId, pageName); 
-                return ResponseEntity.ok(data);
+                return ResponseEntity.ok()
+                        .eTag(projectService.pageETag(data))
+                        .cacheControl(CacheControl.noCache()) // 캐시는 하되 매번 ETag로 재검증
+                        .body(data);
             } catch (Exception e) {
                 e.printStackTrace(); 
                 return ResponseEntity.status(500).body("데이터 조회 실패");
@@ -81,7 +114,7 @@ public ResponseEntity<?> create(HttpSession session) {
     public ResponseEntity<?> updateProjectData(
             @PathVariable Integer webId,
             @RequestParam String oldPageName,
-            @RequestBody Map<String, Object> payload, // 👈 DTO 대신 Map으로 받아서 유연하게 처리
+            @RequestBody PageSaveReq req, // 👈 Map + convertValue 대신 DTO로 한 번에 역직렬화
             HttpSession session) {
         
         Integer memberId = (Integer) session.getAttribute("loginedMemberId");
@@ -89,23 +122,48 @@ public ResponseEntity<?> create(HttpSession session) {
             return ResponseEntity.status(401).body("로그인이 필요합니다.");
         }
 
-        try {
-            // 1. Payload에서 데이터 추출
-            // Jackson ObjectMapper 등을 써서 UserWebPage로 변환하는 게 정석이지만, 
-            // 여기선 간단히 Map에서 꺼내서 세팅한다고 가정합니다.
-            // (실제로는 ObjectMapper로 변환하거나 프론트에서 구조를 맞춰 보내야 함)
-            
-            // 편의상 DTO 변환 로직 (간략화)
-            ObjectMapper mapper = new ObjectMapper();
-            UserWebPage pageData = mapper.convertValue(payload.get("pageData"), UserWebPage.class);
-            String previewHtml = (String) payload.get("previewHtml"); // 🔥 HTML 받기
+        UserWebPage pageData = req.getPageData();
+        if (pageData == null) {
+            return ResponseEntity.badRequest().body("pageData가 필요합니다.");
+        }
 
+        try {
             pageData.setWebId(webId);
             
-            // 2. 서비스 호출 (인자 4개)
-            projectService.updateProjectData(webId, oldPageName, pageData, previewHtml);
+            // 서비스 호출 (인자 4개) → 저장된 revision 반환
+            Integer revision = projectService.updateProjectData(webId, oldPageName, pageData, req.getPreviewHtml());
             
-            return ResponseEntity.ok().build();
+            return ResponseEntity.ok(Map.of("ok", true, "revision", revision == null ? 0 : revision));
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResponseEntity.status(500).body("데이터 저장 실패");
+        }
+    }
+
+    // 🔥 [patch 저장] 바뀐 부분만 보내는 저장 API (base revision이 다르면 409 → 전체 저장으로 재시도)
+    @PatchMapping("/{webId}/data")
+    public ResponseEntity<?> patchProjectData(
+            @PathVariable Integer webId,
+            @RequestParam String pageName,
+            @RequestBody PagePatchReq req,
+            HttpSession session) {
+
+        Integer memberId = (Integer) session.getAttribute("loginedMemberId");
+        if (memberId == null) {
+            return ResponseEntity.status(401).body("로그인이 필요합니다.");
+        }
+
+        try {
+            int revision = projectService.patchProjectData(webId, pageName, req);
+            return ResponseEntity.ok(Map.of("ok", true, "revision", revision));
+        } catch (PageConflictException e) {
+            return ResponseEntity.status(409).body(Map.of(
+                    "ok", false,
+                    "message", e.getMessage(),
+                    "revision", e.getCurrentRevision()
+            ));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("ok", false, "message", e.getMessage()));
         } catch (Exception e) {
             e.printStackTrace();
             return ResponseEntity.status(500).body("데이터 저장 실패");
@@ -140,6 +198,77 @@ public ResponseEntity<?> getPageList(@PathVariable Integer webId) {
     }
 }
 
+// 1-1. [번들 조회] 프로젝트의 모든 페이지를 한 번에 (N번의 /data 요청 대신)
+// fields=layoutData,styleData 처럼 필요한 blob만 고를 수 있음 (기본값: 전부)
+@GetMapping("/{webId}/bundle")
+public ResponseEntity<?> getProjectBundle(
+        @PathVariable Integer webId,
+        @RequestParam(required = false) String fields) {
+
+    Set<String> selected = ProjectService.BUNDLE_FIELDS;
+    if (fields != null) {
+        selected = new HashSet<>();
+        for (String f : fields.split(",")) {
+            String name = f.trim();
+            if (name.isEmpty()) continue;
+            if (!ProjectService.BUNDLE_FIELDS.contains(name)) {
+                return ResponseEntity.badRequest().body("허용되지 않는 필드입니다: " + name);
+            }
+            selected.add(name);
+        }
+    }
+
+    String title = projectService.getProjectTitle(webId);
+    if (title == null) {
+        return ResponseEntity.status(404).body("존재하지 않는 프로젝트입니다.");
+    }
+
+    Set<String> finalFields = selected;
+    StreamingResponseBody body = out -> projectService.writeProjectBundle(webId, title, finalFields, out);
+    return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(body);
+}
+
+// 🔥 [내보내기] 프로젝트 전체(메타데이터 + 모든 페이지 + 썸네일)를 zip으로 스트리밍 (멤버만)
+@GetMapping("/{webId}/export")
+public ResponseEntity<?> exportProject(@PathVariable Integer webId, HttpSession session) {
+    Integer memberId = (Integer) session.getAttribute("loginedMemberId");
+    if (memberId == null) return ResponseEntity.status(401).body("로그인이 필요합니다.");
+    if (!projectService.isProjectMember(webId, memberId)) {
+        return ResponseEntity.status(403).body("프로젝트 멤버만 내보낼 수 있습니다.");
+    }
+
+    String title = projectService.getProjectTitle(webId);
+    if (title == null) {
+        return ResponseEntity.status(404).body("존재하지 않는 프로젝트입니다.");
+    }
+
+    StreamingResponseBody body = out -> projectArchiveService.writeArchive(webId, title, out);
+    return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType("application/zip"))
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"webcrafter-" + webId + ".zip\"")
+            .body(body);
+}
+
+// 🔥 [가져오기] 내보낸 zip을 요청 본문(application/zip) 그대로 받아서 새 프로젝트로 생성
+// - multipart로 받지 않고 본문 스트림을 바로 읽음 (업로드 크기 제한/임시 파일 없이 엔트리 단위 처리)
+@PostMapping(value = "/import", consumes = { "application/zip", MediaType.APPLICATION_OCTET_STREAM_VALUE })
+public ResponseEntity<?> importProject(HttpServletRequest request, HttpSession session) {
+    Integer memberId = (Integer) session.getAttribute("loginedMemberId");
+    if (memberId == null) return ResponseEntity.status(401).body("로그인이 필요합니다.");
+
+    try {
+        Integer newWebId = projectArchiveService.importArchive(memberId, request.getInputStream());
+        return ResponseEntity.ok(newWebId);
+    } catch (IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body("가져오기 실패: " + e.getMessage());
+    } catch (Exception e) {
+        e.printStackTrace();
+        return ResponseEntity.status(500).body("가져오기 실패");
+    }
+}
+
 // 2. [생성] 새 페이지 만들기 API (원래 이름에 맞는 기능)
 @PostMapping("/{webId}/pages")
 public ResponseEntity<?> createNewPage(
@@ -241,24 +370,148 @@ public ResponseEntity<?> createNewPage(
     }
 
         // ✅ [탐색] 모든 프로젝트 조회 API
+        // cursor 파라미터를 보내면 커서 방식({ items, nextCursor }), 없으면 기존 page 방식(배열)
+        // sort=trending|popular 는 미리 계산된 순위표에서 page 방식으로 (검색어/커서 없이)
         @GetMapping("/explore")
-        public ResponseEntity<List<com.example.web_crafter_java.dto.ProjectExploreDto>> getExploreProjects(
+        public ResponseEntity<?> getExploreProjects(
                 @RequestParam(required = false) String keyword, 
                 @RequestParam(defaultValue = "0") int page,     
-                @RequestParam(defaultValue = "20") int size     
+                @RequestParam(defaultValue = "20") int size,
+                @RequestParam(required = false) String cursor,
+                @RequestParam(defaultValue = "recent") String sort
         ) {
             try {
-                // Service 호출
-                List<com.example.web_crafter_java.dto.ProjectExploreDto> projects = 
-                    projectService.getExploreProjects(keyword, page, size);
-                
-                return ResponseEntity.ok(projects);
+                if (!"recent".equals(sort) && !"trending".equals(sort) && !"popular".equals(sort)) {
+                    return ResponseEntity.badRequest().body("지원하지 않는 정렬입니다: " + sort);
+                }
+
+                size = Math.max(1, Math.min(size, EXPLORE_MAX_SIZE)); // 0/음수/과대 size는 1..최대로 맞춤
+
+                // 직렬화된 JSON을 그대로 (같은 요청이 몰리면 DB 조회/인코딩은 한 번)
+                byte[] json = projectService.getExploreJson(sort, keyword, page, cursor, size);
+                return ResponseEntity.ok()
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(json);
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body(e.getMessage()); // 잘못된 cursor
             } catch (Exception e) {
                 e.printStackTrace(); // 서버 콘솔에 에러 로그 출력 (디버깅용)
                 return ResponseEntity.status(500).build();
             }
         }
 
+    // 🔥 [탐색 썸네일] 카드가 화면에 보일 때 따로 받아가는 미리보기 HTML
+    // - ETag로 바뀌지 않았으면 304, gzip을 받는 클라이언트에는 미리 압축해둔 본문을 그대로
+    // - 사용자 HTML이라 API 도메인에서 문서로 열리지 않게 text/plain + nosniff 로 내려줌 (프론트가 iframe srcdoc에 넣음)
+    @GetMapping("/{webId}/preview")
+    public ResponseEntity<?> getProjectPreview(
+            @PathVariable Integer webId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        try {
+            ProjectPreview preview = projectService.getProjectPreview(webId);
+            if (preview == null) {
+                return ResponseEntity.status(404).body("미리보기가 없습니다.");
+            }
+
+            if (ifNoneMatch != null && etagMatches(ifNoneMatch, preview.eTag())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(preview.eTag())
+                        .cacheControl(CacheControl.noCache())
+                        .build();
+            }
+
+            boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+            ResponseEntity.BodyBuilder res = ResponseEntity.ok()
+                    .eTag(preview.eTag())
+                    .cacheControl(CacheControl.noCache())
+                    .contentType(new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8))
+                    .header("X-Content-Type-Options", "nosniff")
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            if (gzip) {
+                return res.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(preview.gzip());
+            }
+            return res.body(preview.identity());
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResponseEntity.status(500).body("미리보기 조회 실패");
+        }
+    }
+
+    // 🔥 [서버 컴파일] 저장된 블록(layout/style/logic)으로 서버가 직접 만든 정적 HTML 문서
+    // - 미리보기와 같은 이유로 text/plain + nosniff (프론트가 iframe srcdoc에 넣음)
+    @GetMapping("/{webId}/compiled")
+    public ResponseEntity<?> getCompiledPage(
+            @PathVariable Integer webId,
+            @RequestParam String pageName,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        try {
+            String etag = projectService.getCompiledETag(webId, pageName);
+            if (etag == null) {
+                return ResponseEntity.status(404).body("존재하지 않는 페이지입니다.");
+            }
+            if (ifNoneMatch != null && etagMatches(ifNoneMatch, etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(etag)
+                        .cacheControl(CacheControl.noCache())
+                        .build();
+            }
+
+            return ResponseEntity.ok()
+                    .eTag(etag)
+                    .cacheControl(CacheControl.noCache())
+                    .contentType(new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8))
+                    .header("X-Content-Type-Options", "nosniff")
+                    .body(projectService.getCompiledPage(webId, pageName));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("컴파일 실패: " + e.getMessage());
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResponseEntity.status(500).body("컴파일 실패");
+        }
+    }
+
+    // 🔥 [배포] 현재 페이지들을 서버에서 컴파일해 정적 사이트로 배포 (멤버만)
+    // - 방문자는 /site/{webId}/ 로 접속 (편집용 /data 경로와 DB를 거치지 않음)
+    @PostMapping("/{webId}/publish")
+    public ResponseEntity<?> publishProject(@PathVariable Integer webId, HttpSession session) {
+        Integer memberId = (Integer) session.getAttribute("loginedMemberId");
+        if (memberId == null) return ResponseEntity.status(401).body("로그인이 필요합니다.");
+        if (!projectService.isProjectMember(webId, memberId)) {
+            return ResponseEntity.status(403).body("프로젝트 멤버만 배포할 수 있습니다.");
+        }
+
+        try {
+            int version = projectService.publishProject(webId);
+            return ResponseEntity.ok(Map.of("ok", true, "version", version, "url", "/site/" + webId + "/"));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("배포 실패: " + e.getMessage());
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResponseEntity.status(500).body("배포 실패");
+        }
+    }
+
+    // 🔥 [배포] 현재 배포 버전 (0이면 배포 안 됨)
+    @GetMapping("/{webId}/publish")
+    public ResponseEntity<?> getPublishStatus(@PathVariable Integer webId) {
+        int version = projectService.getPublishedVersion(webId);
+        return ResponseEntity.ok(Map.of("published", version > 0, "version", version, "url", "/site/" + webId + "/"));
+    }
+
+    // 🔥 [배포] 배포 내리기
+    @DeleteMapping("/{webId}/publish")
+    public ResponseEntity<?> unpublishProject(@PathVariable Integer webId, HttpSession session) {
+        Integer memberId = (Integer) session.getAttribute("loginedMemberId");
+        if (memberId == null) return ResponseEntity.status(401).body("로그인이 필요합니다.");
+        if (!projectService.isProjectMember(webId, memberId)) {
+            return ResponseEntity.status(403).body("프로젝트 멤버만 배포를 내릴 수 있습니다.");
+        }
+
+        projectService.unpublishProject(webId);
+        return ResponseEntity.ok(Map.of("ok", true));
+    }
+
     // 🔥 [추방 API] 방장이 멤버 내보내기
     @DeleteMapping("/{webId}/members/{memberId}")
     public ResponseEntity<?> kickMember(
@@ -301,11 +554,77 @@ public ResponseEntity<?> createNewPage(
     // ProjectController.java
 
     @PatchMapping("/hit/{webId}")
-    public ResponseEntity<Void> updateHit(@PathVariable("webId") Integer webId) { // 👈 ("webId") 추가!!
-        projectService.updateHit(webId);
+    public ResponseEntity<Void> updateHit(@PathVariable("webId") Integer webId, HttpServletRequest request) { // 👈 ("webId") 추가!!
+        // 같은 회원(비로그인이면 같은 IP + 브라우저)의 반복 조회는 일정 시간 안에 1회로
+        // HttpSession 파라미터는 비로그인 방문마다 세션을 새로 만들어서 (쿠키 없는 클라이언트는 매번 다른 id) 쓰지 않음
+        HttpSession session = request.getSession(false);
+        Integer memberId = session != null ? (Integer) session.getAttribute("loginedMemberId") : null;
+        String viewer = memberId != null
+            ? "m:" + memberId
+            : "a:" + request.getRemoteAddr() + "|" + Integer.toHexString(String.valueOf(request.getHeader(HttpHeaders.USER_AGENT)).hashCode());
+        projectService.updateHit(webId, viewer);
         return ResponseEntity.ok().build();
     }
 
+    // If-None-Match: "a", W/"b" 처럼 여러 개/약한 태그로 올 수 있음
+    private boolean etagMatches(String ifNoneMatch, String etag) {
+        if ("*".equals(ifNoneMatch.trim())) return true;
+        for (String candidate : ifNoneMatch.split(",")) {
+            String c = candidate.trim();
+            if (c.startsWith("W/")) c = c.substring(2);
+            if (c.equals(etag)) return true;
+        }
+        return false;
+    }
+
+    // 🔥 [히스토리] 페이지 저장 버전 목록 (최신순)
+    @GetMapping("/{webId}/revisions")
+    public ResponseEntity<?> getPageRevisions(@PathVariable Integer webId, @RequestParam String pageName) {
+        try {
+            return ResponseEntity.ok(projectService.getPageRevisions(webId, pageName));
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body("히스토리 조회 실패: " + e.getMessage());
+        }
+    }
+
+    // 🔥 [히스토리] 특정 버전 내용 조회 (스냅샷 + delta로 복원)
+    @GetMapping("/{webId}/revisions/{revision}")
+    public ResponseEntity<?> getPageRevision(
+            @PathVariable Integer webId,
+            @PathVariable int revision,
+            @RequestParam String pageName) {
+        try {
+            UserWebPage page = projectService.getPageRevision(webId, pageName, revision);
+            if (page == null) return ResponseEntity.status(404).body("존재하지 않는 버전입니다.");
+            return ResponseEntity.ok(page);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResponseEntity.status(500).body("버전 조회 실패: " + e.getMessage());
+        }
+    }
+
+    // 🔥 [히스토리] 특정 버전으로 되돌리기 (새 저장으로 기록됨)
+    @PostMapping("/{webId}/revisions/{revision}/restore")
+    public ResponseEntity<?> restorePageRevision(
+            @PathVariable Integer webId,
+            @PathVariable int revision,
+            @RequestParam String pageName,
+            HttpSession session) {
+
+        Integer memberId = (Integer) session.getAttribute("loginedMemberId");
+        if (memberId == null) return ResponseEntity.status(401).body("로그인이 필요합니다.");
+
+        try {
+            Integer newRevision = projectService.restorePageRevision(webId, pageName, revision);
+            return ResponseEntity.ok(Map.of("ok", true, "revision", newRevision == null ? 0 : newRevision));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(404).body(e.getMessage());
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResponseEntity.status(500).body("되돌리기 실패: " + e.getMessage());
+        }
+    }
+
     // 🔥 [추가] 개별 페이지 삭제 API
 @DeleteMapping("/{webId}/pages")
 public ResponseEntity<?> deletePage(
@@ -1,26 +1,80 @@
 package com.example.web_crafter_java.controller;
 
+import com.example.web_crafter_java.dto.CollabOp;
+import com.example.web_crafter_java.dto.CollabSync;
+import com.example.web_crafter_java.service.CollabEngine;
+import com.example.web_crafter_java.service.ProjectService;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.messaging.handler.annotation.DestinationVariable;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.Payload; // Payload 어노테이션 추가 권장
-import org.springframework.messaging.handler.annotation.SendTo;
+import org.springframework.messaging.simp.annotation.SubscribeMapping;
 import org.springframework.stereotype.Controller;
-import java.util.Map;
 
 @Controller
 public class ProjectWebSocketController {
 
+    @Autowired
+    private CollabEngine collabEngine;
+
+    @Autowired
+    private ProjectService projectService;
+
+    // 이 STOMP 세션에서 멤버 확인이 끝난 프로젝트 id (op마다 DB를 조회하지 않도록 세션 속성에 보관)
+    private static final String MEMBER_OF_ATTR = "collabMemberOf";
+
     // 클라이언트가 보낼 주소: /app/project/{webId}/block-move
+    // 구독자에게 보낼 주소: /topic/project/{webId}/block-updates (CollabBroadcaster가 tick마다 op 배열로 묶어서 보냄)
     @MessageMapping("/project/{webId}/block-move")
-    // 구독자에게 보낼 주소: /topic/project/{webId}/block-updates
-    @SendTo("/topic/project/{webId}/block-updates")
-    public Map<String, Object> handleBlockMove(
-            @DestinationVariable String webId,
-            @Payload Map<String, Object> moveData // @Payload 명시 (안전성 확보)
+    public void handleBlockMove(
+            @DestinationVariable Integer webId,
+            @Header("simpSessionId") String sessionId,
+            @Header("simpSessionAttributes") Map<String, Object> sessionAttrs,
+            @Payload CollabOp op // @Payload 명시 (안전성 확보)
     ) {
-        // 🚀 서버 콘솔에 이 로그가 찍히면 통신 성공입니다!
-        System.out.println("⚡ [WebSocket] WebID: " + webId + " | Payload: " + moveData);
-        
-        return moveData;
+        // 로그인한 방장/협업자만 편집 가능 (그 외 op는 적용/중계하지 않고 버림)
+        if (!isMember(webId, sessionAttrs)) {
+            System.out.println("⚠️ [Collab] 권한 없는 op 차단 webId=" + webId + ", session=" + sessionId);
+            return;
+        }
+        // 🚀 서버 문서에 먼저 적용 → seq가 붙은 확정 op만 중계 (적용할 수 없는 op는 버림)
+        collabEngine.apply(webId, sessionId, op);
+    }
+
+    // 클라이언트가 block-updates 구독 직후 한 번 구독하는 주소: /app/project/{webId}/sync
+    // 헤더: page, mode (지금 보는 문서), since-seq (마지막으로 받은 seq, 처음이면 생략)
+    // 응답은 브로커를 거치지 않고 구독한 세션에만 감 (저장 안 된 문서가 담기므로 방장/협업자에게만, 아니면 응답 없음)
+    @SubscribeMapping("/project/{webId}/sync")
+    public CollabSync handleSync(
+            @DestinationVariable Integer webId,
+            @Header("simpSessionAttributes") Map<String, Object> sessionAttrs,
+            @Header(name = "page", required = false) String pageName,
+            @Header(name = "mode", required = false) String mode,
+            @Header(name = "since-seq", required = false) Long sinceSeq
+    ) {
+        if (!isMember(webId, sessionAttrs)) {
+            System.out.println("⚠️ [Collab] 권한 없는 sync 차단 webId=" + webId);
+            return null;
+        }
+        return collabEngine.sync(webId, pageName, mode, sinceSeq);
+    }
+
+    // 핸드셰이크 때 HttpSessionHandshakeInterceptor가 복사해 둔 로그인 세션 값으로 확인 (클라이언트가 보낸 헤더는 믿지 않음)
+    private boolean isMember(Integer webId, Map<String, Object> sessionAttrs) {
+        if (webId == null || sessionAttrs == null) return false;
+        if (!(sessionAttrs.get("loginedMemberId") instanceof Integer memberId)) return false;
+
+        @SuppressWarnings("unchecked")
+        Set<Integer> verified = (Set<Integer>) sessionAttrs.computeIfAbsent(MEMBER_OF_ATTR, k -> ConcurrentHashMap.newKeySet());
+        if (verified.contains(webId)) return true;
+        if (!projectService.isProjectMember(webId, memberId)) return false;
+        verified.add(webId);
+        return true;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,146 @@
+package com.example.web_crafter_java.controller;
+
+import com.example.web_crafter_java.config.PublishProperties;
+import com.example.web_crafter_java.service.SitePublisher;
+import com.example.web_crafter_java.service.SitePublisher.PublishedFile;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * ✅ 배포된 사이트 방문자용 읽기 전용 컨트롤러 (/site/**)
+ * - SitePublisher가 미리 만들어둔 정적 파일만 내려줌 → DB/MyBatis/편집용 테이블을 전혀 안 거침
+ * - /site/{webId}/v/{version}/... : 버전 주소는 내용이 절대 안 바뀌므로 1년 immutable 캐시
+ * - /site/{webId}/... : 최신 버전 주소는 짧게 캐시 + ETag 재검증
+ * - gzip을 받는 클라이언트에는 미리 압축해둔 파일을 그대로, Tomcat sendfile이 되면 zero-copy 전송
+ */
+@RestController
+@RequestMapping("/site")
+public class SiteController {
+
+    // Tomcat sendfile 요청 속성 (DefaultServlet과 같은 방식)
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    // 사용자 사이트가 API 도메인의 쿠키/세션에 닿지 않게 sandbox(별도 origin)로 띄움
+    private static final String SITE_CSP = "sandbox allow-scripts allow-forms allow-popups; "
+            + "default-src 'none'; img-src * data:; style-src 'unsafe-inline'; script-src 'unsafe-inline'; font-src *";
+
+    @Autowired
+    private SitePublisher sitePublisher;
+
+    @Autowired
+    private PublishProperties publishProperties;
+
+    // 1. 최신 버전 (첫 페이지 / 페이지 이름)
+    @GetMapping({"/{webId}", "/{webId}/"})
+    public ResponseEntity<?> latestIndex(
+            @PathVariable Integer webId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            HttpServletRequest request) throws IOException {
+        return serve(sitePublisher.find(webId, null, null), false, ifNoneMatch, acceptEncoding, request);
+    }
+
+    @GetMapping("/{webId}/{pageName}")
+    public ResponseEntity<?> latestPage(
+            @PathVariable Integer webId,
+            @PathVariable String pageName,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            HttpServletRequest request) throws IOException {
+        return serve(sitePublisher.find(webId, null, pageName), false, ifNoneMatch, acceptEncoding, request);
+    }
+
+    // 2. 특정 버전 (불변)
+    @GetMapping({"/{webId}/v/{version}", "/{webId}/v/{version}/"})
+    public ResponseEntity<?> versionIndex(
+            @PathVariable Integer webId,
+            @PathVariable int version,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            HttpServletRequest request) throws IOException {
+        return serve(sitePublisher.find(webId, version, null), true, ifNoneMatch, acceptEncoding, request);
+    }
+
+    @GetMapping("/{webId}/v/{version}/{pageName}")
+    public ResponseEntity<?> versionPage(
+            @PathVariable Integer webId,
+            @PathVariable int version,
+            @PathVariable String pageName,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            HttpServletRequest request) throws IOException {
+        return serve(sitePublisher.find(webId, version, pageName), true, ifNoneMatch, acceptEncoding, request);
+    }
+
+    private ResponseEntity<?> serve(PublishedFile file, boolean immutable, String ifNoneMatch,
+                                    String acceptEncoding, HttpServletRequest request) throws IOException {
+        if (file == null) {
+            return ResponseEntity.status(404)
+                    .contentType(new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8))
+                    .body("배포된 페이지가 없습니다.");
+        }
+
+        CacheControl cache = immutable
+                ? CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable()
+                : CacheControl.maxAge(Duration.ofSeconds(publishProperties.getLatestMaxAgeSeconds())).cachePublic();
+
+        if (ifNoneMatch != null && etagMatches(ifNoneMatch, file.eTag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(file.eTag())
+                    .cacheControl(cache)
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+
+        boolean gzip = file.gzip() != null && acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+        Path path = gzip ? file.gzip() : file.identity();
+        long length = Files.size(path);
+
+        ResponseEntity.BodyBuilder res = ResponseEntity.ok()
+                .eTag(file.eTag())
+                .cacheControl(cache)
+                .contentType(new MediaType(MediaType.TEXT_HTML, StandardCharsets.UTF_8))
+                .contentLength(length)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .header("Content-Security-Policy", SITE_CSP)
+                .header("X-Content-Type-Options", "nosniff");
+        if (gzip) res.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+
+        // zero-copy: 본문은 비워두고 Tomcat이 응답 커밋 시 파일을 소켓으로 바로 보냄
+        if (publishProperties.isSendfile() && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, path.toString());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, length);
+            return res.build();
+        }
+        return res.body(new FileSystemResource(path));
+    }
+
+    private boolean etagMatches(String ifNoneMatch, String etag) {
+        if ("*".equals(ifNoneMatch.trim())) return true;
+        for (String candidate : ifNoneMatch.split(",")) {
+            String c = candidate.trim();
+            if (c.startsWith("W/")) c = c.substring(2);
+            if (c.equals(etag)) return true;
+        }
+        return false;
+    }
+}
@@ -8,7 +8,7 @@ import org.apache.ibatis.annotations.Select;
 public interface CommonDao {
 
     /**
-     * ✅ 플랫폼 전체 통계 조회
+     * ✅ 플랫폼 전체 통계 조회 (CommonService가 시작 시/주기적으로만 호출, 요청마다 호출하지 않음)
      * - `user` 테이블 백틱 처리 필수
      * - 마지막 괄호 및 콤마 위치 주의
      */
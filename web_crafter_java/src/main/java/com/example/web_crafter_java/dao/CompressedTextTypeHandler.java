@@ -0,0 +1,76 @@
+package com.example.web_crafter_java.dao;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.ibatis.type.BaseTypeHandler;
+import org.apache.ibatis.type.JdbcType;
+
+/**
+ * ✅ 페이지 blob(layoutData/styleData/logicData, preview_html) 압축 저장용 TypeHandler
+ * - 쓸 때: 일정 크기 이상이면 gzip, 작으면 UTF-8 그대로 (LONGBLOB 컬럼)
+ * - 읽을 때: 앞 2바이트가 gzip 매직(1f 8b)이면 풀고, 아니면 예전 평문 행으로 보고 그대로 읽음
+ *   (0x8b는 UTF-8 첫 글자 다음에 올 수 없는 바이트라 평문과 헷갈릴 일이 없음)
+ */
+public class CompressedTextTypeHandler extends BaseTypeHandler<String> {
+
+    // 이보다 작은 값("{}", 빈 XML 등)은 압축해봐야 헤더 때문에 더 커짐
+    private static final int MIN_COMPRESS_BYTES = 256;
+
+    @Override
+    public void setNonNullParameter(PreparedStatement ps, int i, String parameter, JdbcType jdbcType) throws SQLException {
+        ps.setBytes(i, encode(parameter));
+    }
+
+    @Override
+    public String getNullableResult(ResultSet rs, String columnName) throws SQLException {
+        return decode(rs.getBytes(columnName));
+    }
+
+    @Override
+    public String getNullableResult(ResultSet rs, int columnIndex) throws SQLException {
+        return decode(rs.getBytes(columnIndex));
+    }
+
+    @Override
+    public String getNullableResult(CallableStatement cs, int columnIndex) throws SQLException {
+        return decode(cs.getBytes(columnIndex));
+    }
+
+    public static byte[] encode(String text) {
+        byte[] raw = text.getBytes(StandardCharsets.UTF_8);
+        if (raw.length < MIN_COMPRESS_BYTES) return raw;
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 4);
+        try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+            gz.write(raw);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    public static String decode(byte[] stored) {
+        if (stored == null) return null;
+        if (!isCompressed(stored)) return new String(stored, StandardCharsets.UTF_8);
+
+        try (GZIPInputStream gz = new GZIPInputStream(new ByteArrayInputStream(stored))) {
+            return new String(gz.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static boolean isCompressed(byte[] stored) {
+        return stored.length >= 2 && stored[0] == (byte) 0x1f && stored[1] == (byte) 0x8b;
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.web_crafter_java.dao;
+
+import java.util.List;
+
+import org.apache.ibatis.annotations.*;
+
+/**
+ * ✅ 내용 주소 기반(content-addressed) 페이지 blob 저장소
+ * - 같은 내용(빈 Blockly XML, "{}", 인기 템플릿 리메이크 등)은 page_blob 한 행을 여러 페이지가 공유
+ * - refCount = 이 blob을 가리키는 페이지 컬럼 수, 0이 되면 GC 대상
+ */
+@Mapper
+public interface PageBlobDao {
+
+    // 해시가 이미 있으면 refCount+1 후 그 id를, 없으면 새로 넣고 새 id를 돌려줌
+    // (중복 시 affected rows가 2라 useGeneratedKeys는 키 개수가 안 맞음 → LAST_INSERT_ID(id)로 받은 값을 직접 조회)
+    @Insert("""
+        INSERT INTO page_blob (hash, content, refCount)
+        VALUES (#{hash}, #{content,typeHandler=CompressedTextTypeHandler}, 1)
+        ON DUPLICATE KEY UPDATE refCount = refCount + 1, id = LAST_INSERT_ID(id)
+    """)
+    @SelectKey(statement = "SELECT LAST_INSERT_ID()", keyProperty = "id", before = false, resultType = Long.class)
+    void acquire(PageBlobRow blob);
+
+    @Update("UPDATE page_blob SET refCount = refCount - 1 WHERE id = #{id}")
+    void release(@Param("id") Long id);
+
+    // 이미 있는 blob을 하나 더 가리킬 때 (히스토리 스냅샷)
+    @Update("UPDATE page_blob SET refCount = refCount + 1 WHERE id = #{id}")
+    void retain(@Param("id") Long id);
+
+    // 페이지가 지금 가리키는 blob id/해시 조회 (blob 내용은 안 읽음)
+    // 페이지 행을 잠가서 (FOR UPDATE OF p) 같은 페이지의 동시 저장/삭제가 옛 blob id를 두 번 release하지 않게 함
+    // → 반드시 트랜잭션 안에서 호출
+    @Select("""
+        SELECT p.id AS pageId,
+               p.layoutBlobId, lb.hash AS layoutHash,
+               p.styleBlobId, sb.hash AS styleHash,
+               p.logicBlobId, gb.hash AS logicHash
+        FROM userWeb_pages p
+        LEFT JOIN page_blob lb ON lb.id = p.layoutBlobId
+        LEFT JOIN page_blob sb ON sb.id = p.styleBlobId
+        LEFT JOIN page_blob gb ON gb.id = p.logicBlobId
+        WHERE p.webId = #{webId} AND p.pageName = #{pageName}
+        FOR UPDATE OF p
+    """)
+    PageBlobRefs selectPageBlobRefs(@Param("webId") Integer webId, @Param("pageName") String pageName);
+
+    // adjustRefs 전에 대상 페이지 행 잠금 (그 사이 저장이 blob id를 바꾸면 엉뚱한 blob의 refCount가 바뀜)
+    @Select("""
+        <script>
+        SELECT id FROM userWeb_pages
+        WHERE webId = #{webId}<if test="pageName != null"> AND pageName = #{pageName}</if>
+        FOR UPDATE
+        </script>
+    """)
+    List<Integer> lockPages(@Param("webId") Integer webId, @Param("pageName") String pageName);
+
+    /*
+     * 페이지/프로젝트 단위 refCount 일괄 증감
+     * - 한 페이지의 style/logic이 같은 blob("{}")을 가리킬 수 있으므로 blob별로 개수를 세서 한 번에 반영
+     *   (multi-table UPDATE는 같은 행을 여러 번 매칭해도 한 번만 갱신하기 때문)
+     */
+    @Update("""
+        <script>
+        UPDATE page_blob b
+        JOIN (
+            SELECT bid, COUNT(*) AS cnt
+            FROM (
+                SELECT layoutBlobId AS bid FROM userWeb_pages WHERE webId = #{webId}<if test="pageName != null"> AND pageName = #{pageName}</if>
+                UNION ALL
+                SELECT styleBlobId FROM userWeb_pages WHERE webId = #{webId}<if test="pageName != null"> AND pageName = #{pageName}</if>
+                UNION ALL
+                SELECT logicBlobId FROM userWeb_pages WHERE webId = #{webId}<if test="pageName != null"> AND pageName = #{pageName}</if>
+            ) refs
+            WHERE bid IS NOT NULL
+            GROUP BY bid
+        ) x ON b.id = x.bid
+        SET b.refCount = b.refCount + (x.cnt * #{delta})
+        </script>
+    """)
+    void adjustRefs(@Param("webId") Integer webId, @Param("pageName") String pageName, @Param("delta") int delta);
+
+    // 아무도 안 가리키는 blob 정리 (한 번에 limit개씩)
+    @Delete("DELETE FROM page_blob WHERE refCount <= 0 LIMIT #{limit}")
+    int deleteUnreferenced(@Param("limit") int limit);
+}
@@ -0,0 +1,15 @@
+package com.example.web_crafter_java.dao;
+
+import lombok.Data;
+
+// 페이지 한 행이 현재 가리키는 blob id + 해시 (바뀐 필드만 교체하기 위해 비교용)
+@Data
+public class PageBlobRefs {
+    private Integer pageId;
+    private Long layoutBlobId;
+    private byte[] layoutHash;
+    private Long styleBlobId;
+    private byte[] styleHash;
+    private Long logicBlobId;
+    private byte[] logicHash;
+}
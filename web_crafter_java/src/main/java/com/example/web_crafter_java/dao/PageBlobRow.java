@@ -0,0 +1,11 @@
+package com.example.web_crafter_java.dao;
+
+import lombok.Data;
+
+// page_blob 테이블 한 행 (내용 해시로 식별되는 공유 blob)
+@Data
+public class PageBlobRow {
+    private Long id;
+    private byte[] hash;    // SHA-256(원문 UTF-8)
+    private String content; // 원문 (저장 시 CompressedTextTypeHandler로 압축)
+}
@@ -0,0 +1,157 @@
+package com.example.web_crafter_java.dao;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.apache.ibatis.annotations.*;
+
+import com.example.web_crafter_java.dto.PageRevisionInfo;
+
+/**
+ * ✅ 페이지 저장 히스토리 (page_revision)
+ * - SNAPSHOT 행은 page_blob을 가리키기만 하고, DELTA 행은 직전 히스토리 대비 patch op만 저장
+ * - 어떤 버전이든 "그 이전 마지막 스냅샷 + delta 최대 N-1개"로 복원
+ */
+@Mapper
+public interface PageRevisionDao {
+
+    // 다음 행을 스냅샷으로 할지 판단용 (가장 최근 히스토리 1건)
+    @Select("""
+        SELECT revision, kind, chainLen
+        FROM page_revision
+        WHERE pageId = #{pageId}
+        ORDER BY revision DESC
+        LIMIT 1
+    """)
+    PageRevisionRow selectLatest(@Param("pageId") Integer pageId);
+
+    @Insert("""
+        INSERT INTO page_revision (pageId, revision, kind, chainLen, layoutBlobId, styleBlobId, logicBlobId, deltaData)
+        VALUES (#{pageId}, #{revision}, #{kind}, #{chainLen}, #{layoutBlobId}, #{styleBlobId}, #{logicBlobId},
+                #{deltaData,typeHandler=CompressedTextTypeHandler})
+    """)
+    @Options(useGeneratedKeys = true, keyProperty = "id")
+    void insertRevision(PageRevisionRow row);
+
+    // 히스토리 목록 (최신순)
+    @Select("""
+        SELECT r.revision, r.kind, r.regDate
+        FROM page_revision r
+        JOIN userWeb_pages p ON p.id = r.pageId
+        WHERE p.webId = #{webId} AND p.pageName = #{pageName}
+        ORDER BY r.revision DESC
+        LIMIT #{limit}
+    """)
+    List<PageRevisionInfo> selectRevisions(
+        @Param("webId") Integer webId, @Param("pageName") String pageName, @Param("limit") int limit);
+
+    // 복원 시작점: revision 이하의 마지막 스냅샷 (내용은 page_blob에서)
+    @Select("""
+        SELECT r.id, r.pageId, r.revision, r.kind, r.chainLen,
+               lb.content AS layoutData, sb.content AS styleData, gb.content AS logicData
+        FROM page_revision r
+        JOIN userWeb_pages p ON p.id = r.pageId
+        LEFT JOIN page_blob lb ON lb.id = r.layoutBlobId
+        LEFT JOIN page_blob sb ON sb.id = r.styleBlobId
+        LEFT JOIN page_blob gb ON gb.id = r.logicBlobId
+        WHERE p.webId = #{webId} AND p.pageName = #{pageName}
+          AND r.kind = 'SNAPSHOT' AND r.revision <= #{revision}
+        ORDER BY r.revision DESC
+        LIMIT 1
+    """)
+    @Results({
+        @Result(column = "layoutData", property = "layoutData", typeHandler = CompressedTextTypeHandler.class),
+        @Result(column = "styleData", property = "styleData", typeHandler = CompressedTextTypeHandler.class),
+        @Result(column = "logicData", property = "logicData", typeHandler = CompressedTextTypeHandler.class)
+    })
+    PageRevisionRow selectSnapshotAtOrBefore(
+        @Param("webId") Integer webId, @Param("pageName") String pageName, @Param("revision") int revision);
+
+    // 스냅샷 다음부터 목표 버전까지의 delta (오래된 순)
+    @Select("""
+        SELECT revision, kind, chainLen, deltaData
+        FROM page_revision
+        WHERE pageId = #{pageId} AND kind = 'DELTA'
+          AND revision > #{fromRevision} AND revision <= #{toRevision}
+        ORDER BY revision
+    """)
+    @Results({
+        @Result(column = "deltaData", property = "deltaData", typeHandler = CompressedTextTypeHandler.class)
+    })
+    List<PageRevisionRow> selectDeltas(
+        @Param("pageId") Integer pageId, @Param("fromRevision") int fromRevision, @Param("toRevision") int toRevision);
+
+    /*
+     * 페이지/프로젝트 삭제 직전: 스냅샷이 잡고 있던 blob 참조 해제
+     * (행 자체는 userWeb_pages 삭제 시 ON DELETE CASCADE로 지워짐)
+     */
+    @Update("""
+        <script>
+        UPDATE page_blob b
+        JOIN (
+            SELECT bid, COUNT(*) AS cnt
+            FROM (
+                SELECT r.layoutBlobId AS bid FROM page_revision r JOIN userWeb_pages p ON p.id = r.pageId
+                WHERE r.kind = 'SNAPSHOT' AND p.webId = #{webId}<if test="pageName != null"> AND p.pageName = #{pageName}</if>
+                UNION ALL
+                SELECT r.styleBlobId FROM page_revision r JOIN userWeb_pages p ON p.id = r.pageId
+                WHERE r.kind = 'SNAPSHOT' AND p.webId = #{webId}<if test="pageName != null"> AND p.pageName = #{pageName}</if>
+                UNION ALL
+                SELECT r.logicBlobId FROM page_revision r JOIN userWeb_pages p ON p.id = r.pageId
+                WHERE r.kind = 'SNAPSHOT' AND p.webId = #{webId}<if test="pageName != null"> AND p.pageName = #{pageName}</if>
+            ) refs
+            WHERE bid IS NOT NULL
+            GROUP BY bid
+        ) x ON b.id = x.bid
+        SET b.refCount = b.refCount - x.cnt
+        </script>
+    """)
+    void releaseSnapshotRefs(@Param("webId") Integer webId, @Param("pageName") String pageName);
+
+    /*
+     * 정리(compaction): 페이지별로 cutoff 이전 마지막 스냅샷(= 남길 기준점)보다 앞선 행은 전부 불필요
+     * - 그 행들은 전부 cutoff 이전이고, 기준점 스냅샷에서 체인이 새로 시작하므로
+     *   남은 버전의 복원에는 영향이 없음
+     * - 지울 스냅샷이 잡고 있던 blob 참조를 먼저 해제한 뒤 (같은 트랜잭션) 행을 지움
+     */
+    @Update("""
+        UPDATE page_blob b
+        JOIN (
+            SELECT bid, COUNT(*) AS cnt
+            FROM (
+                SELECT r.layoutBlobId AS bid FROM page_revision r JOIN (
+                    SELECT pageId, MAX(revision) AS revision FROM page_revision
+                    WHERE kind = 'SNAPSHOT' AND regDate < #{cutoff} GROUP BY pageId
+                ) s ON s.pageId = r.pageId AND r.revision < s.revision
+                WHERE r.kind = 'SNAPSHOT'
+                UNION ALL
+                SELECT r.styleBlobId FROM page_revision r JOIN (
+                    SELECT pageId, MAX(revision) AS revision FROM page_revision
+                    WHERE kind = 'SNAPSHOT' AND regDate < #{cutoff} GROUP BY pageId
+                ) s ON s.pageId = r.pageId AND r.revision < s.revision
+                WHERE r.kind = 'SNAPSHOT'
+                UNION ALL
+                SELECT r.logicBlobId FROM page_revision r JOIN (
+                    SELECT pageId, MAX(revision) AS revision FROM page_revision
+                    WHERE kind = 'SNAPSHOT' AND regDate < #{cutoff} GROUP BY pageId
+                ) s ON s.pageId = r.pageId AND r.revision < s.revision
+                WHERE r.kind = 'SNAPSHOT'
+            ) refs
+            WHERE bid IS NOT NULL
+            GROUP BY bid
+        ) x ON b.id = x.bid
+        SET b.refCount = b.refCount - x.cnt
+    """)
+    void releaseCompactedSnapshotRefs(@Param("cutoff") LocalDateTime cutoff);
+
+    @Delete("""
+        DELETE d FROM page_revision d
+        JOIN (
+            SELECT pageId, MAX(revision) AS revision
+            FROM page_revision
+            WHERE kind = 'SNAPSHOT' AND regDate < #{cutoff}
+            GROUP BY pageId
+        ) s ON s.pageId = d.pageId AND d.revision < s.revision
+    """)
+    int deleteCompacted(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,23 @@
+package com.example.web_crafter_java.dao;
+
+import java.time.LocalDateTime;
+
+import lombok.Data;
+
+// page_revision 한 행 (SNAPSHOT이면 blob id + 내용, DELTA면 deltaData만 채워짐)
+@Data
+public class PageRevisionRow {
+    private Long id;
+    private Integer pageId;
+    private Integer revision;
+    private String kind; // SNAPSHOT / DELTA
+    private Integer chainLen;
+    private Long layoutBlobId;
+    private Long styleBlobId;
+    private Long logicBlobId;
+    private String deltaData;
+    private String layoutData;
+    private String styleData;
+    private String logicData;
+    private LocalDateTime regDate;
+}
@@ -3,6 +3,8 @@ package com.example.web_crafter_java.dao;
 import java.util.List;
 
 import org.apache.ibatis.annotations.*;
+import org.apache.ibatis.mapping.ResultSetType;
+import org.apache.ibatis.session.ResultHandler;
 
 import com.example.web_crafter_java.dto.ProjectExploreDto;
 import com.example.web_crafter_java.dto.UserWeb;
@@ -19,13 +21,6 @@ public interface ProjectDao {
     @Options(useGeneratedKeys = true, keyProperty = "id") // 생성된 PK(id)를 다시 가져옴 [cite: 2026-01-16]
     void insertUserWeb(UserWeb userWeb);
 
-    /* 2. 초기 페이지 생성: userWeb_pages 테이블 */
-    @Insert("""
-        INSERT INTO userWeb_pages (webId, pageName, layoutData, styleData, logicData, regDate, updateDate)
-        VALUES (#{webId}, #{pageName}, #{layoutData}, #{styleData}, #{logicData}, NOW(), NOW())
-    """)
-    void insertUserWebPage(UserWebPage page); 
-
     /* 3. 멤버 권한 등록: userWeb_member 테이블 */
     @Insert("""
         INSERT INTO userWeb_member (webId, userId, role, regDate)
@@ -45,32 +40,63 @@ public interface ProjectDao {
      * webId가 일치하는 데이터만 가져오기 때문에 프로젝트별 데이터 분리가 가능해집니다.
      */
     @Select("""
-        SELECT p.*, w.title
+        SELECT p.id, p.webId, p.pageName, p.revision, w.title,
+               COALESCE(lb.content, p.layoutData) AS layoutData,
+               COALESCE(sb.content, p.styleData) AS styleData,
+               COALESCE(gb.content, p.logicData) AS logicData
         FROM userWeb_pages p
         JOIN userWeb w ON p.webId = w.id
+        LEFT JOIN page_blob lb ON lb.id = p.layoutBlobId
+        LEFT JOIN page_blob sb ON sb.id = p.styleBlobId
+        LEFT JOIN page_blob gb ON gb.id = p.logicBlobId
         WHERE p.webId = #{webId}
         AND p.pageName = #{pageName}
     """)
+    // 내용은 page_blob에서 (blob id가 없는 예전 행은 기존 컬럼에서) 읽음
+    // blob 컬럼은 압축 저장되므로 TypeHandler로 풀어서 매핑 (나머지 컬럼은 자동 매핑)
+    @Results(id = "pageResult", value = {
+        @Result(column = "layoutData", property = "layoutData", typeHandler = CompressedTextTypeHandler.class),
+        @Result(column = "styleData", property = "styleData", typeHandler = CompressedTextTypeHandler.class),
+        @Result(column = "logicData", property = "logicData", typeHandler = CompressedTextTypeHandler.class)
+    })
     UserWebPage getPageData(@Param("webId") Integer webId, @Param("pageName") String pageName);
 
 
     // 이 방식이 '이름 변경'과 '다중 페이지' 대응에 최적화된 최종형입니다. [cite: 2026-01-21]
+    // 내용은 PageBlobStore가 page_blob에 넣고 id만 넘겨줌 (예전 컬럼은 비워서 blob으로 이전 완료)
     @Update("""
         UPDATE userWeb_pages 
-        SET layoutData = #{pageData.layoutData}, 
-            styleData = #{pageData.styleData}, 
-            logicData = #{pageData.logicData}, 
+        SET layoutBlobId = #{pageData.layoutBlobId}, 
+            styleBlobId = #{pageData.styleBlobId}, 
+            logicBlobId = #{pageData.logicBlobId}, 
+            layoutData = NULL, styleData = NULL, logicData = NULL,
             pageName = #{pageData.pageName},
+            revision = COALESCE(#{pageData.revision}, revision + 1),
             updateDate = NOW()
         WHERE webId = #{webId} AND pageName = #{oldPageName}
     """)
     void updatePageData(
         @Param("webId") Integer webId, @Param("oldPageName") String oldPageName, @Param("pageData") UserWebPage pageData);
+
+    // ETag 계산용: 행 id + revision + 제목만 조회 (blob 컬럼 안 읽음)
+    @Select("""
+        SELECT p.id, p.webId, p.pageName, p.revision, w.title
+        FROM userWeb_pages p
+        JOIN userWeb w ON p.webId = w.id
+        WHERE p.webId = #{webId}
+        AND p.pageName = #{pageName}
+    """)
+    UserWebPage getPageVersion(@Param("webId") Integer webId, @Param("pageName") String pageName);
+
+    // 현재 저장 버전만 조회 (blob 컬럼 안 읽음)
+    @Select("SELECT revision FROM userWeb_pages WHERE webId = #{webId} AND pageName = #{pageName}")
+    Integer getPageRevision(@Param("webId") Integer webId, @Param("pageName") String pageName);
+
     // ✅ 2. [추가] 미리보기 HTML 저장 (대표 이미지용 - userWeb 테이블)
     // 페이지 저장할 때 같이 호출해주면 됩니다.
     @Update("""
         UPDATE userWeb
-        SET preview_html = #{previewHtml},
+        SET preview_html = #{previewHtml,typeHandler=CompressedTextTypeHandler},
             updateDate = NOW()
         WHERE id = #{webId}
     """)
@@ -83,11 +109,12 @@ public interface ProjectDao {
     @Delete("DELETE FROM userWeb WHERE id = #{projectId}")
     void deleteProject(@Param("projectId") Integer projectId);
 
+    /* 2. 페이지 생성: userWeb_pages 테이블 (blob id는 PageBlobStore.insertPage에서 채움) */
     @Insert("""
         INSERT INTO userWeb_pages 
-            (webId, pageName, layoutData, styleData, logicData, regDate, updateDate)
+            (webId, pageName, layoutBlobId, styleBlobId, logicBlobId, regDate, updateDate)
         VALUES 
-            (#{webId}, #{pageName}, #{layoutData}, #{styleData}, #{logicData}, NOW(), NOW())
+            (#{webId}, #{pageName}, #{layoutBlobId}, #{styleBlobId}, #{logicBlobId}, NOW(), NOW())
     """)
     void insertNewPage(UserWebPage pageData);
 
@@ -106,6 +133,70 @@ public interface ProjectDao {
         """)
         java.util.List<UserWebPage> selectPagesByWebId(Integer webId);
 
+    /**
+     * ✅ [번들 조회] 프로젝트의 모든 페이지를 쿼리 1번으로 한 행씩 흘려보냄
+     * - fields에 포함된 blob 컬럼만 SELECT (목록만 필요하면 blob을 아예 안 읽음)
+     * - fetchSize = Integer.MIN_VALUE : MySQL 드라이버가 결과를 한꺼번에 메모리에 올리지 않고 행 단위로 스트리밍
+     */
+    @Select("""
+        <script>
+        SELECT p.id, p.webId, p.pageName, p.revision
+        <if test="fields.contains('layoutData')">, COALESCE(lb.content, p.layoutData) AS layoutData</if>
+        <if test="fields.contains('styleData')">, COALESCE(sb.content, p.styleData) AS styleData</if>
+        <if test="fields.contains('logicData')">, COALESCE(gb.content, p.logicData) AS logicData</if>
+        FROM userWeb_pages p
+        <if test="fields.contains('layoutData')">LEFT JOIN page_blob lb ON lb.id = p.layoutBlobId</if>
+        <if test="fields.contains('styleData')">LEFT JOIN page_blob sb ON sb.id = p.styleBlobId</if>
+        <if test="fields.contains('logicData')">LEFT JOIN page_blob gb ON gb.id = p.logicBlobId</if>
+        WHERE p.webId = #{webId}
+        ORDER BY p.id
+        </script>
+    """)
+    @ResultMap("pageResult")
+    @Options(fetchSize = Integer.MIN_VALUE, resultSetType = ResultSetType.FORWARD_ONLY)
+    void streamPagesByWebId(
+        @Param("webId") Integer webId,
+        @Param("fields") java.util.Set<String> fields,
+        ResultHandler<UserWebPage> handler
+    );
+
+    /* ✅ [리메이크] 원본 제목/썸네일을 DB 안에서 바로 복사해 새 프로젝트 생성 (blob이 JVM을 거치지 않음) */
+    @Insert("""
+        INSERT INTO userWeb (userId, title, preview_html, regDate, updateDate)
+        SELECT #{web.userId}, CONCAT('Remix of ', src.title), src.preview_html, NOW(), NOW()
+        FROM userWeb src
+        WHERE src.id = #{sourceWebId}
+    """)
+    @Options(useGeneratedKeys = true, keyProperty = "web.id")
+    int insertRemixUserWeb(@Param("web") UserWeb web, @Param("sourceWebId") Integer sourceWebId);
+
+    /*
+     * ✅ [리메이크] 원본 페이지 전체를 INSERT ... SELECT 한 문장으로 복사
+     * - blob id만 복사 (내용은 page_blob 공유) → PageBlobStore.copyProjectPages에서 refCount까지 같이 반영
+     * - 아직 blob으로 안 옮겨진 예전 행은 기존 컬럼(압축된 상태 그대로)을 복사
+     */
+    @Insert("""
+        INSERT INTO userWeb_pages
+            (webId, pageName, layoutBlobId, styleBlobId, logicBlobId, layoutData, styleData, logicData, regDate, updateDate)
+        SELECT #{newWebId}, pageName, layoutBlobId, styleBlobId, logicBlobId, layoutData, styleData, logicData, NOW(), NOW()
+        FROM userWeb_pages
+        WHERE webId = #{sourceWebId}
+        ORDER BY id
+    """)
+    int copyPages(@Param("sourceWebId") Integer sourceWebId, @Param("newWebId") Integer newWebId);
+
+    /* [가져오기] 여러 페이지를 multi-row INSERT 한 문장으로 저장 (blob id는 PageBlobStore.insertPages에서 채움) */
+    @Insert("""
+        <script>
+        INSERT INTO userWeb_pages (webId, pageName, layoutBlobId, styleBlobId, logicBlobId, regDate, updateDate)
+        VALUES
+        <foreach collection="pages" item="p" separator=",">
+            (#{webId}, #{p.pageName}, #{p.layoutBlobId}, #{p.styleBlobId}, #{p.logicBlobId}, NOW(), NOW())
+        </foreach>
+        </script>
+    """)
+    int insertPagesBatch(@Param("webId") Integer webId, @Param("pages") List<UserWebPage> pages);
+
 /* 1. [초대 체크] 이미 멤버인지 확인 (중복 초대 방지) */
     @Select("""
         SELECT COUNT(*) 
@@ -168,29 +259,121 @@ public interface ProjectDao {
             w.title, 
             w.hit as views, 
             w.updateDate, 
-            u.nickname as ownerNickname,
-            w.preview_html as previewHtml 
+            u.nickname as ownerNickname
         FROM userWeb w
         JOIN user u ON w.userId = u.id
+        <if test="ftQuery != null">
+        JOIN userWeb_search s ON s.webId = w.id
+        </if>
         WHERE 1=1
-        <if test='keyword != null and keyword != ""'>
+        <choose>
+            <when test="ftQuery != null">
+            AND MATCH(s.title, s.nickname, s.body) AGAINST(#{ftQuery} IN BOOLEAN MODE)
+            </when>
+            <when test='keyword != null and keyword != ""'>
             AND (w.title LIKE CONCAT('%', #{keyword}, '%') OR u.nickname LIKE CONCAT('%', #{keyword}, '%'))
-        </if>
+            </when>
+        </choose>
         
         -- 🔥 [핵심 수정] 정렬 기준 강화
+        -- 0순위: (색인 검색일 때) 검색 점수 높은 순
         -- 1순위: 최근 수정된 순서 (updateDate DESC)
         -- 2순위: (시간이 같을 경우) 최신 글 ID 순서 (id DESC) -> 이걸 넣어야 순서가 안 바뀜!
-        ORDER BY w.updateDate DESC, w.id DESC
+        ORDER BY
+        <if test="ftQuery != null">MATCH(s.title, s.nickname, s.body) AGAINST(#{ftQuery} IN BOOLEAN MODE) DESC,</if>
+        w.updateDate DESC, w.id DESC
         
         LIMIT #{limit} OFFSET #{offset}
         </script>
     """)
     List<ProjectExploreDto> selectExploreProjects(
         @Param("keyword") String keyword, 
+        @Param("ftQuery") String ftQuery,
         @Param("limit") int limit, 
         @Param("offset") int offset
     );
 
+    /**
+     * ✅ [탐색 페이지] 커서(seek) 방식 조회
+     * - OFFSET 대신 "마지막으로 본 (updateDate, id) 보다 뒤" 조건으로 바로 찾아가므로 깊은 페이지도 limit개만 읽음
+     * - updateDate <= 조건은 row-value 비교만으로는 인덱스 범위를 못 잡는 MySQL 버전을 위한 보조 조건
+     * - 색인 검색(ftQuery)일 때는 (검색 점수, id) 순서로 이어봄
+     *   점수는 float이라 그대로 비교하면 경계 행이 어긋날 수 있어 정수(×1e6)로 바꿔서 비교
+     */
+    @Select("""
+        <script>
+        SELECT 
+            w.id, 
+            w.title, 
+            w.hit as views, 
+            w.updateDate, 
+            u.nickname as ownerNickname
+            <if test="ftQuery != null">, CAST(MATCH(s.title, s.nickname, s.body) AGAINST(#{ftQuery} IN BOOLEAN MODE) * 1000000 AS SIGNED) AS score</if>
+        FROM userWeb w
+        JOIN user u ON w.userId = u.id
+        <choose>
+            <when test="ftQuery != null">
+        JOIN userWeb_search s ON s.webId = w.id
+        WHERE MATCH(s.title, s.nickname, s.body) AGAINST(#{ftQuery} IN BOOLEAN MODE)
+                <if test="cursorId != null">
+            AND (CAST(MATCH(s.title, s.nickname, s.body) AGAINST(#{ftQuery} IN BOOLEAN MODE) * 1000000 AS SIGNED), w.id) &lt; (#{cursorScore}, #{cursorId})
+                </if>
+        ORDER BY score DESC, w.id DESC
+            </when>
+            <otherwise>
+        WHERE 1=1
+                <if test='keyword != null and keyword != ""'>
+            AND (w.title LIKE CONCAT('%', #{keyword}, '%') OR u.nickname LIKE CONCAT('%', #{keyword}, '%'))
+                </if>
+                <if test="cursorId != null">
+            AND w.updateDate &lt;= #{cursorDate}
+            AND (w.updateDate, w.id) &lt; (#{cursorDate}, #{cursorId})
+                </if>
+        ORDER BY w.updateDate DESC, w.id DESC
+            </otherwise>
+        </choose>
+        LIMIT #{limit}
+        </script>
+    """)
+    List<ProjectExploreDto> selectExploreProjectsAfter(
+        @Param("keyword") String keyword,
+        @Param("ftQuery") String ftQuery,
+        @Param("cursorDate") java.time.LocalDateTime cursorDate,
+        @Param("cursorScore") Long cursorScore,
+        @Param("cursorId") Long cursorId,
+        @Param("limit") int limit
+    );
+
+    // ✅ [탐색 페이지] trending/popular: 순위표에서 고른 id들의 메타데이터만 (순서는 서비스에서 맞춤)
+    @Select("""
+        <script>
+        SELECT 
+            w.id, 
+            w.title, 
+            w.hit as views, 
+            w.updateDate, 
+            u.nickname as ownerNickname
+        FROM userWeb w
+        JOIN user u ON w.userId = u.id
+        WHERE w.id IN
+        <foreach collection="ids" item="id" open="(" separator="," close=")">#{id}</foreach>
+        </script>
+    """)
+    List<ProjectExploreDto> selectExploreProjectsByIds(@Param("ids") List<Integer> ids);
+
+    // popular 순위 재계산 (백그라운드에서 주기적으로만 실행)
+    @Select("""
+        SELECT id, (hit + #{remixWeight} * remixCount) AS score
+        FROM userWeb
+        ORDER BY score DESC, id DESC
+        LIMIT #{limit}
+    """)
+    List<RankingRow> selectPopularScores(@Param("limit") int limit, @Param("remixWeight") double remixWeight);
+
+    // 리메이크될 때 원본의 리메이크 수 +1 (수정일은 그대로)
+    @Update("UPDATE userWeb SET remixCount = remixCount + 1, updateDate = updateDate WHERE id = #{webId}")
+    void increaseRemixCount(@Param("webId") Integer webId);
+
     // 1. 현재 멤버 수 세기
     @Select("SELECT COUNT(*) FROM userWeb_member WHERE webId = #{webId}")
     int countMembers(Integer webId);
@@ -213,18 +396,42 @@ public interface ProjectDao {
     String getMemberRole(@Param("webId") Integer webId, @Param("userId") Integer userId);
     // ProjectDao.java 인터페이스 내부에 추가
 
+    // 삭제 전 조회수 (플랫폼 통계에서 빼기 위해, 없는 프로젝트면 null)
+    @Select("SELECT hit FROM userWeb WHERE id = #{webId}")
+    Integer getProjectHit(@Param("webId") Integer webId);
+
     // 1. 프로젝트 제목만 가져오기
     @Select("SELECT title FROM userWeb WHERE id = #{webId}")
     String getProjectTitle(Integer webId);
 
-    // 2. 미리보기 HTML만 가져오기 (복사 용도)
+    // 2. 미리보기 HTML만 가져오기 (복사 / 썸네일 API 용도)
     @Select("SELECT preview_html FROM userWeb WHERE id = #{webId}")
-    String getPreviewHtml(Integer webId);
+    byte[] selectPreviewHtmlRaw(Integer webId);
+
+    // preview_html은 압축 저장될 수 있으므로 바이트로 읽어서 풀어줌
+    default String getPreviewHtml(Integer webId) {
+        return CompressedTextTypeHandler.decode(selectPreviewHtmlRaw(webId));
+    }
 
     // ProjectDao.java
-    @Update("UPDATE `userWeb` SET `hit` = `hit` + 1 WHERE `id` = #{webId}")
+    // updateDate = updateDate: 조회수만 바뀐 걸로 수정일(ON UPDATE)이 갱신돼 탐색 순서가 흔들리지 않게
+    @Update("UPDATE `userWeb` SET `hit` = `hit` + 1, `updateDate` = `updateDate` WHERE `id` = #{webId}")
     void increaseHit(@Param("webId") Integer webId);
 
+    // HitCounter가 모아둔 조회수를 프로젝트 여러 개에 한 문장으로 반영 (key: webId, value: 증가분)
+    @Update("""
+        <script>
+        UPDATE `userWeb`
+        SET `hit` = `hit` + CASE `id`
+            <foreach collection="hits" index="webId" item="cnt">WHEN #{webId} THEN #{cnt} </foreach>
+            ELSE 0 END,
+            `updateDate` = `updateDate`
+        WHERE `id` IN
+        <foreach collection="hits" index="webId" open="(" separator="," close=")">#{webId}</foreach>
+        </script>
+    """)
+    void increaseHits(@Param("hits") java.util.Map<Integer, Long> hits);
+
     @Delete("DELETE FROM userWeb_pages WHERE webId = #{webId} AND pageName = #{pageName}")
     void deletePage(@Param("webId") Integer webId, @Param("pageName") String pageName);
 }
\ No newline at end of file
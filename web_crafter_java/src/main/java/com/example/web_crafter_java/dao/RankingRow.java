@@ -0,0 +1,10 @@
+package com.example.web_crafter_java.dao;
+
+import lombok.Data;
+
+// 순위 재계산용 (프로젝트 id + 점수)
+@Data
+public class RankingRow {
+    private Integer id;
+    private Double score;
+}
@@ -0,0 +1,39 @@
+package com.example.web_crafter_java.dao;
+
+import org.apache.ibatis.annotations.*;
+
+/**
+ * ✅ 탐색 검색용 역색인 (userWeb_search, FULLTEXT WITH PARSER ngram)
+ * - 프로젝트 제목 / 방장 닉네임 / 미리보기에서 뽑은 본문 텍스트를 한 행에 모아두고
+ *   MySQL ngram 파서가 2글자 단위로 쪼개서 색인 (한글/CJK도 띄어쓰기 없이 검색됨)
+ * - 프로젝트 생성/이름 변경/삭제, 닉네임 변경, 미리보기 저장 때마다 해당 행만 갱신
+ */
+@Mapper
+public interface SearchIndexDao {
+
+    // 제목/닉네임을 원본 테이블에서 바로 읽어 넣음 (없으면 INSERT, 있으면 갱신)
+    @Insert("""
+        INSERT INTO userWeb_search (webId, title, nickname)
+        SELECT w.id, w.title, u.nickname
+        FROM userWeb w
+        JOIN user u ON w.userId = u.id
+        WHERE w.id = #{webId}
+        ON DUPLICATE KEY UPDATE title = VALUES(title), nickname = VALUES(nickname)
+    """)
+    void upsertProject(@Param("webId") Integer webId);
+
+    @Update("UPDATE userWeb_search SET body = #{body} WHERE webId = #{webId}")
+    void updateBody(@Param("webId") Integer webId, @Param("body") String body);
+
+    // 닉네임이 바뀌면 그 사람이 방장인 프로젝트 전부
+    @Update("""
+        UPDATE userWeb_search s
+        JOIN userWeb w ON w.id = s.webId
+        SET s.nickname = #{nickname}
+        WHERE w.userId = #{userId}
+    """)
+    void updateOwnerNickname(@Param("userId") Integer userId, @Param("nickname") String nickname);
+
+    @Delete("DELETE FROM userWeb_search WHERE webId = #{webId}")
+    void deleteProject(@Param("webId") Integer webId);
+}
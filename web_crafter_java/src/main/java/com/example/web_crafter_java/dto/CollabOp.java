@@ -0,0 +1,57 @@
+package com.example.web_crafter_java.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+import lombok.Data;
+
+// 협업 블록 op 한 건 (/app/project/{webId}/block-move 로 받고 /topic/project/{webId}/block-updates 로 중계)
+// 서버가 seq를 매긴 뒤 내보내는 것이 확정(canonical) op → 모든 클라이언트가 같은 순서로 적용
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class CollabOp {
+    public static final String MOVE = "MOVE";                          // 최상위 블록 좌표 이동 (예전 클라이언트는 type 없이 보냄)
+    public static final String CONNECTION = "BLOCK_CONNECTION";        // 부모에 끼우기 / 떼어내기
+    public static final String UI_MOVE = "UI_MOVE";                    // 미리보기 화면 자유 배치 좌표 (data.uiX/uiY)
+    public static final String CREATE = "CREATE";                      // 블록 생성 (block = Blockly 직렬화 JSON)
+    public static final String DELETE = "DELETE";                      // 블록 삭제 (하위 블록 포함)
+    public static final String FIELD = "FIELD";                        // 필드 값 변경
+
+    private Long seq;            // 서버가 매기는 프로젝트별 순번 (클라이언트가 보낸 값은 무시)
+    private String type;
+    private String pageName;     // 대상 페이지 (없으면 문서에 적용하지 않고 중계만)
+    private String mode;         // structure / style / logic
+    private String blockId;
+    @JsonSerialize(using = CoordinateSerializer.class)
+    private Double x;
+    @JsonSerialize(using = CoordinateSerializer.class)
+    private Double y;
+    private String newParentId;  // BLOCK_CONNECTION: null이면 떼어내서 최상위로
+    private String inputName;    // BLOCK_CONNECTION: null이면 부모의 next(아래에 쌓기)
+    private String field;        // FIELD: 필드 이름
+    private JsonNode value;      // FIELD: 새 값
+    private JsonNode block;      // CREATE: Blockly.serialization.blocks.save() 결과
+    private String senderId;
+    private Boolean drag;        // true = 드래그 중간 위치 (문서에 적용 안 하고 tick마다 최신 위치만 중계, seq 없음)
+
+    // 정수 좌표는 정수로 내보냄 (JSON "12" / CBOR 1~3바이트, "12.0"이나 8바이트 double이 아님)
+    public static final class CoordinateSerializer extends StdSerializer<Double> {
+        public CoordinateSerializer() {
+            super(Double.class);
+        }
+
+        @Override
+        public void serialize(Double v, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            if (v == Math.rint(v) && Math.abs(v) < 1e15) gen.writeNumber(v.longValue());
+            else gen.writeNumber(v);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.web_crafter_java.dto;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.Data;
+
+// 협업 구독 직후 동기화 응답 (SUBSCRIBE /app/project/{webId}/sync)
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CollabSync {
+    private Long seq;            // 이 응답 시점의 마지막 seq (재연결 때 since-seq로 다시 보냄), null = 서버에 진행 중인 협업 없음
+    private boolean reset;       // since-seq 이후 op를 다 돌려줄 수 없음 → 저장본부터 다시 로드
+    private String pageName;
+    private String mode;
+    private String document;     // 서버가 들고 있는 요청 페이지/모드의 최신 문서 (null = GET /data 저장본이 최신)
+    private List<CollabOp> ops;  // since-seq 이후 확정 op (seq 순)
+}
@@ -0,0 +1,16 @@
+package com.example.web_crafter_java.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// 탐색 페이지 커서 방식 응답 (nextCursor가 null이면 마지막 페이지)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExplorePageDto {
+    private List<ProjectExploreDto> items;
+    private String nextCursor;
+}
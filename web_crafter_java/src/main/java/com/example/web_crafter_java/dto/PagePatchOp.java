@@ -0,0 +1,11 @@
+package com.example.web_crafter_java.dto;
+
+import lombok.Data;
+
+// 텍스트 patch 한 조각: base 문자열의 at 위치부터 delete 글자를 지우고 insert를 끼워넣음
+@Data
+public class PagePatchOp {
+    private int at;        // base 문자열 기준 시작 위치
+    private int delete;    // 지울 글자 수
+    private String insert; // 끼워넣을 문자열 (없으면 삭제만)
+}
@@ -0,0 +1,14 @@
+package com.example.web_crafter_java.dto;
+
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+// PATCH /api/projects/{webId}/data 요청 바디
+@Data
+public class PagePatchReq {
+    private Integer baseRevision;                    // 클라이언트가 마지막으로 받은 revision
+    private Map<String, List<PagePatchOp>> patches;  // key: layoutData / styleData / logicData
+    private String previewHtml;                      // (선택) 미리보기 HTML
+}
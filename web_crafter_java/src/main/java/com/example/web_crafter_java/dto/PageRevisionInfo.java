@@ -0,0 +1,13 @@
+package com.example.web_crafter_java.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.Data;
+
+// 히스토리 목록 응답용 (GET /api/projects/{webId}/revisions)
+@Data
+public class PageRevisionInfo {
+    private Integer revision;
+    private String kind;
+    private LocalDateTime regDate;
+}
@@ -0,0 +1,11 @@
+package com.example.web_crafter_java.dto;
+
+import lombok.Data;
+
+// PUT /api/projects/{webId}/data 요청 바디
+// Spring 공용 ObjectMapper가 요청 스트림에서 바로 이 객체로 읽음 (중간 Map 없이 큰 XML 문자열은 한 번만 만들어짐)
+@Data
+public class PageSaveReq {
+    private UserWebPage pageData;  // 편집용 데이터 (layout/style/logic)
+    private String previewHtml;    // (선택) 탐색 페이지 미리보기 HTML
+}
@@ -1,5 +1,7 @@
 package com.example.web_crafter_java.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -17,7 +19,9 @@ public class ProjectExploreDto {
     private LocalDateTime updateDate;
     private int views;
     
-    // 🔥 [수정] DB의 'preview_html' 컬럼과 매핑될 필드
-    // 더 이상 htmlContent(페이지조인)가 아니라, 프로젝트 자체의 썸네일 HTML입니다.
-    private String previewHtml; 
+    // 썸네일 HTML은 목록에 싣지 않고 GET /api/projects/{id}/preview 로 따로 받음
+
+    // 색인 검색 점수 (커서 계산용, 응답에는 안 나감)
+    @JsonIgnore
+    private Long score;
 }
\ No newline at end of file
@@ -1,5 +1,7 @@
 package com.example.web_crafter_java.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import lombok.Data;
 
 @Data
@@ -11,4 +13,10 @@ public class UserWebPage {
     private String styleData;
     private String logicData;
     private String title;
+    private Integer revision; // 저장할 때마다 +1 (patch 저장 시 base 비교용)
+
+    // page_blob id (서버 내부용, 응답/요청 JSON에는 안 나감)
+    @JsonIgnore private Long layoutBlobId;
+    @JsonIgnore private Long styleBlobId;
+    @JsonIgnore private Long logicBlobId;
 }
\ No newline at end of file
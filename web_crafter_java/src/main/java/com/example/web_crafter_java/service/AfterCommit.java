@@ -0,0 +1,27 @@
+package com.example.web_crafter_java.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * ✅ 캐시 무효화처럼 "DB가 바뀐 뒤에" 해야 하는 작업 실행기
+ * - 트랜잭션 중이면 커밋 후에 실행 (커밋 전에 비우면 다른 요청이 옛 값을 다시 캐시에 올림)
+ * - 롤백되면 DB가 그대로이므로 실행하지 않음, 트랜잭션 밖이면 바로 실행
+ */
+final class AfterCommit {
+
+    private AfterCommit() {}
+
+    static void run(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
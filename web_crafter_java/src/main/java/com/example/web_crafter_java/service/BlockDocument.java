@@ -0,0 +1,323 @@
+package com.example.web_crafter_java.service;
+
+import com.example.web_crafter_java.dto.CollabOp;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * ✅ 협업 편집용 워크스페이스 문서 한 장 (페이지 하나의 layout/style/logic 중 하나)
+ * - Blockly.serialization.workspaces.save() JSON 트리를 그대로 들고, blockId → 블록/부모 위치 색인을 유지
+ * - op 적용은 트리를 직접 고침 → 저장할 때는 트리를 그대로 문자열로 (클라이언트 저장본과 같은 형식)
+ * - 적용할 수 없는 op(없는 블록, 자기 자식 밑으로 끼우기, 이미 있는 id 생성 등)는 false → 중계하지 않음
+ * - 스레드 안전하지 않음: CollabEngine이 프로젝트 단위로 잠그고 호출
+ */
+final class BlockDocument {
+
+    // 블록이 붙어 있는 자리 (input == null 이면 부모의 next)
+    private record Slot(String parentId, String input, boolean shadow) {}
+
+    private final ObjectMapper objectMapper;
+    private final ObjectNode root;
+    private ArrayNode topBlocks; // 블록이 하나도 없으면 null (Blockly도 "blocks" 키를 안 씀)
+
+    private final Map<String, ObjectNode> blocks = new HashMap<>();
+    private final Map<String, Slot> parents = new HashMap<>(); // 최상위 블록은 없음
+
+    private BlockDocument(ObjectMapper objectMapper, ObjectNode root) {
+        this.objectMapper = objectMapper;
+        this.root = root;
+        JsonNode top = root.path("blocks").path("blocks");
+        if (top instanceof ArrayNode arr) {
+            this.topBlocks = arr;
+            for (JsonNode b : arr) {
+                if (b instanceof ObjectNode o) index(o, null);
+            }
+        }
+    }
+
+    // 저장본 → 문서 (XML 같은 JSON 워크스페이스가 아닌 저장본이면 null → 중계만)
+    static BlockDocument parse(ObjectMapper objectMapper, String raw) {
+        if (raw == null || raw.isBlank()) return new BlockDocument(objectMapper, objectMapper.createObjectNode());
+        if (!raw.trim().startsWith("{")) return null;
+        try {
+            JsonNode node = objectMapper.readTree(raw);
+            return node instanceof ObjectNode o ? new BlockDocument(objectMapper, o) : null;
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    String serialize() {
+        try {
+            return objectMapper.writeValueAsString(root);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // =========================================================
+    // op 적용 (성공하면 true)
+    // =========================================================
+    boolean apply(CollabOp op) {
+        return switch (op.getType()) {
+            case CollabOp.MOVE -> move(op.getBlockId(), op.getX(), op.getY());
+            case CollabOp.UI_MOVE -> uiMove(op.getBlockId(), op.getX(), op.getY());
+            case CollabOp.CONNECTION -> connect(op.getBlockId(), op.getNewParentId(), op.getInputName(), op.getX(), op.getY());
+            case CollabOp.CREATE -> create(op.getBlockId(), op.getBlock(), op.getX(), op.getY());
+            case CollabOp.DELETE -> delete(op.getBlockId());
+            case CollabOp.FIELD -> setField(op.getBlockId(), op.getField(), op.getValue());
+            default -> false;
+        };
+    }
+
+    // 1. 최상위 블록 좌표 이동 (그 사이 다른 사람이 어딘가에 끼웠으면 무시)
+    private boolean move(String id, Double x, Double y) {
+        ObjectNode block = blocks.get(id);
+        if (block == null || x == null || y == null || parents.containsKey(id)) return false;
+        setNumber(block, "x", x);
+        setNumber(block, "y", y);
+        // 클라이언트는 로드할 때 data.x/y 로 다시 옮기므로 같이 맞춤
+        updateData(block, data -> {
+            setNumber(data, "x", x);
+            setNumber(data, "y", y);
+        });
+        return true;
+    }
+
+    // 2. 미리보기 자유 배치 좌표
+    private boolean uiMove(String id, Double x, Double y) {
+        ObjectNode block = blocks.get(id);
+        if (block == null || x == null || y == null) return false;
+        updateData(block, data -> {
+            setNumber(data, "uiX", x);
+            setNumber(data, "uiY", y);
+        });
+        return true;
+    }
+
+    // 3. 끼우기 / 떼어내기
+    private boolean connect(String id, String newParentId, String inputName, Double x, Double y) {
+        ObjectNode block = blocks.get(id);
+        if (block == null || isShadow(id)) return false;
+
+        if (newParentId == null) {
+            detach(id);
+            if (x != null && y != null) {
+                setNumber(block, "x", x);
+                setNumber(block, "y", y);
+            }
+            attachTop(block);
+            return true;
+        }
+
+        ObjectNode parent = blocks.get(newParentId);
+        if (parent == null || isShadow(newParentId)) return false;
+        // 자기 자신이나 자기 자식 밑으로는 못 끼움 (순환)
+        for (String p = newParentId; p != null; p = parentOf(p)) {
+            if (p.equals(id)) return false;
+        }
+
+        detach(id);
+        block.remove("x");
+        block.remove("y");
+        updateData(block, data -> {
+            data.remove("uiX"); // 끼워진 블록은 자유 배치 좌표를 안 가짐 (클라이언트와 동일)
+            data.remove("uiY");
+        });
+
+        if (inputName != null) {
+            ObjectNode input = objectField(objectField(parent, "inputs"), inputName);
+            ObjectNode occupant = input.get("block") instanceof ObjectNode o ? o : null;
+            input.set("block", block);
+            parents.put(id, new Slot(newParentId, inputName, false));
+            if (occupant != null) {
+                // 자리에 있던 블록은 밀려나서 최상위로 (Blockly bump와 같은 결과)
+                parents.remove(occupant.path("id").asText());
+                attachTop(occupant);
+            }
+        } else {
+            ObjectNode next = objectField(parent, "next");
+            ObjectNode occupant = next.get("block") instanceof ObjectNode o ? o : null;
+            next.set("block", block);
+            parents.put(id, new Slot(newParentId, null, false));
+            if (occupant != null) {
+                // 중간에 끼워 넣기: 원래 아래 있던 블록은 옮겨온 묶음의 맨 끝에 이어 붙임
+                ObjectNode tail = block;
+                while (tail.path("next").get("block") instanceof ObjectNode n) tail = n;
+                objectField(tail, "next").set("block", occupant);
+                parents.put(occupant.path("id").asText(), new Slot(tail.path("id").asText(), null, false));
+            }
+        }
+        return true;
+    }
+
+    // 4. 생성 (블록 묶음 통째로, id가 하나라도 이미 있으면 거절)
+    private boolean create(String id, JsonNode json, Double x, Double y) {
+        if (id == null || !(json instanceof ObjectNode block) || !id.equals(block.path("id").asText(null))) return false;
+        for (String childId : subtreeIds(block)) {
+            if (childId == null || blocks.containsKey(childId)) return false;
+        }
+        ObjectNode copy = block.deepCopy();
+        if (x != null && y != null) {
+            setNumber(copy, "x", x);
+            setNumber(copy, "y", y);
+        }
+        attachTop(copy);
+        index(copy, null);
+        return true;
+    }
+
+    // 5. 삭제 (next로 이어진 아래 블록, 안에 든 블록까지 전부 — Blockly dispose와 동일)
+    private boolean delete(String id) {
+        ObjectNode block = blocks.get(id);
+        if (block == null || isShadow(id)) return false;
+        detach(id);
+        for (String childId : subtreeIds(block)) {
+            blocks.remove(childId);
+            parents.remove(childId);
+        }
+        return true;
+    }
+
+    // 6. 필드 값 (마지막 op가 이김)
+    private boolean setField(String id, String field, JsonNode value) {
+        ObjectNode block = blocks.get(id);
+        if (block == null || field == null || value == null) return false;
+        objectField(block, "fields").set(field, value);
+        return true;
+    }
+
+    // =========================================================
+    // 트리 도우미
+    // =========================================================
+
+    private String parentOf(String id) {
+        Slot slot = parents.get(id);
+        return slot == null ? null : slot.parentId();
+    }
+
+    private boolean isShadow(String id) {
+        Slot slot = parents.get(id);
+        return slot != null && slot.shadow();
+    }
+
+    // 지금 자리에서 떼어냄 (블록 자체와 하위 색인은 그대로)
+    private void detach(String id) {
+        ObjectNode block = blocks.get(id);
+        Slot slot = parents.remove(id);
+        if (slot == null) {
+            if (topBlocks == null) return;
+            for (int i = 0; i < topBlocks.size(); i++) {
+                if (topBlocks.get(i) == block) {
+                    topBlocks.remove(i);
+                    break;
+                }
+            }
+            return;
+        }
+
+        ObjectNode parent = blocks.get(slot.parentId());
+        if (slot.input() != null) {
+            JsonNode inputs = parent.get("inputs");
+            if (inputs instanceof ObjectNode ins && ins.get(slot.input()) instanceof ObjectNode input) {
+                if (input.get("block") == block) input.remove("block");
+                if (input.isEmpty()) ins.remove(slot.input());
+                if (ins.isEmpty()) parent.remove("inputs");
+            }
+        } else if (parent.get("next") instanceof ObjectNode next) {
+            if (next.get("block") == block) next.remove("block");
+            if (next.isEmpty()) parent.remove("next");
+        }
+    }
+
+    private void attachTop(ObjectNode block) {
+        if (topBlocks == null) {
+            ObjectNode container = objectField(root, "blocks");
+            if (!container.has("languageVersion")) container.put("languageVersion", 0);
+            topBlocks = container.putArray("blocks");
+        }
+        topBlocks.add(block);
+    }
+
+    // 블록과 하위 블록 전부 색인 (긴 next 체인도 재귀 없이)
+    private void index(ObjectNode start, Slot startSlot) {
+        Deque<Object[]> stack = new ArrayDeque<>();
+        stack.push(new Object[]{start, startSlot});
+        while (!stack.isEmpty()) {
+            Object[] cur = stack.pop();
+            ObjectNode block = (ObjectNode) cur[0];
+            String id = block.path("id").asText(null);
+            if (id == null) continue; // id 없는 블록은 op로 가리킬 수 없음
+            blocks.put(id, block);
+            if (cur[1] != null) parents.put(id, (Slot) cur[1]);
+
+            if (block.get("inputs") instanceof ObjectNode inputs) {
+                for (Map.Entry<String, JsonNode> e : inputs.properties()) {
+                    if (e.getValue().get("block") instanceof ObjectNode child) {
+                        stack.push(new Object[]{child, new Slot(id, e.getKey(), false)});
+                    }
+                    if (e.getValue().get("shadow") instanceof ObjectNode shadow) {
+                        stack.push(new Object[]{shadow, new Slot(id, e.getKey(), true)});
+                    }
+                }
+            }
+            if (block.path("next").get("block") instanceof ObjectNode next) {
+                stack.push(new Object[]{next, new Slot(id, null, false)});
+            }
+        }
+    }
+
+    private static List<String> subtreeIds(ObjectNode start) {
+        List<String> ids = new ArrayList<>();
+        Deque<JsonNode> stack = new ArrayDeque<>();
+        stack.push(start);
+        while (!stack.isEmpty()) {
+            JsonNode block = stack.pop();
+            ids.add(block.path("id").asText(null));
+            for (JsonNode input : block.path("inputs")) {
+                if (input.get("block") instanceof ObjectNode child) stack.push(child);
+                if (input.get("shadow") instanceof ObjectNode shadow) stack.push(shadow);
+            }
+            if (block.path("next").get("block") instanceof ObjectNode next) stack.push(next);
+        }
+        return ids;
+    }
+
+    // 블록의 data 문자열({"x":..,"uiX":..}) 을 고쳐서 다시 문자열로
+    private void updateData(ObjectNode block, Consumer<ObjectNode> editor) {
+        ObjectNode data = null;
+        JsonNode raw = block.get("data");
+        if (raw != null && raw.isTextual()) {
+            try {
+                if (objectMapper.readTree(raw.asText()) instanceof ObjectNode o) data = o;
+            } catch (JsonProcessingException e) {
+                return; // 클라이언트가 쓴 다른 형식의 data는 건드리지 않음
+            }
+        }
+        if (data == null) data = objectMapper.createObjectNode();
+        editor.accept(data);
+        block.put("data", data.toString());
+    }
+
+    private static ObjectNode objectField(ObjectNode node, String name) {
+        if (node.get(name) instanceof ObjectNode o) return o;
+        return node.putObject(name);
+    }
+
+    // 좌표는 정수면 정수로 (Blockly 저장본과 같은 모양)
+    private static void setNumber(ObjectNode node, String name, double v) {
+        if (v == Math.rint(v) && Math.abs(v) < 1e15) node.put(name, (long) v);
+        else node.put(name, v);
+    }
+}
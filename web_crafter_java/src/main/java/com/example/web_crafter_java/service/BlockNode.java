@@ -0,0 +1,32 @@
+package com.example.web_crafter_java.service;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ✅ 저장된 Blockly 워크스페이스(XML/JSON)를 읽어서 만든 블록 하나
+ * - fields: 필드 이름 → 값, inputs: 입력(statement/value) 이름 → 연결된 블록들 (next 체인을 순서대로 펼친 것)
+ * - hash: type + fields + 자식 hash로 만든 subtree 해시 (블록 id/좌표는 안 들어감 → 내용이 같으면 같은 hash)
+ */
+final class BlockNode {
+
+    final String type;
+    final Map<String, String> fields;
+    final Map<String, List<BlockNode>> inputs;
+    final String hash;
+
+    BlockNode(String type, Map<String, String> fields, Map<String, List<BlockNode>> inputs, String hash) {
+        this.type = type;
+        this.fields = fields;
+        this.inputs = inputs;
+        this.hash = hash;
+    }
+
+    String field(String name) {
+        return fields.get(name);
+    }
+
+    List<BlockNode> input(String name) {
+        return inputs.getOrDefault(name, List.of());
+    }
+}
@@ -0,0 +1,360 @@
+package com.example.web_crafter_java.service;
+
+import com.example.web_crafter_java.config.CompilerProperties;
+import com.example.web_crafter_java.dto.UserWebPage;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * ✅ 저장된 Blockly 워크스페이스(layoutData / styleData / logicData) → 정적 HTML / CSS / JS 컴파일러
+ * - 블록 규칙은 프론트 제너레이터(Layout.vue, Content.vue, Style.vue ...)와 system-prompt.txt 명세를 따르되,
+ *   빌더 전용 속성(data-block-id, data-draggable, data-wc-style)은 빼고 배포용 마크업만 만듦
+ * - 블록 subtree마다 결과를 hash 기준으로 캐시 → 저장 후 다시 컴파일하면 바뀐 블록과 그 조상만 새로 만듦
+ *   (같은 내용의 블록은 페이지/프로젝트가 달라도 캐시를 공유)
+ * - 사용자 입력(텍스트, 클래스, CSS 값, URL)은 전부 이스케이프/정리해서 넣음 → 클라이언트가 만든 HTML을 믿지 않아도 됨
+ * - 캐시 적중/미스/크기는 MeterRegistry에 메트릭(webcrafter.compiler.cache.*)으로만 등록 (actuator 웹 노출은 health,info뿐)
+ */
+@Component
+public class BlocklyCompiler {
+
+    // 블록 하나(+자식들)의 컴파일 결과
+    // decl: style_tag BODY 안에 들어가는 CSS 선언 (style_tag가 감싸서 css로 만듦)
+    private record Fragment(String html, String css, String decl, String js) {
+        static final Fragment EMPTY = new Fragment("", "", "", "");
+
+        long weight() {
+            return 64L + (html.length() + css.length() + decl.length() + js.length()) * 2L;
+        }
+    }
+
+    private static final Set<String> AREA_TAGS = Set.of("header", "nav", "main", "section", "aside", "footer");
+    private static final Set<String> BOX_TAGS = Set.of("div", "article");
+    private static final Set<String> HEADING_TAGS = Set.of("h1", "h2", "h3", "h4", "h5", "h6");
+    private static final Set<String> BUTTON_TYPES = Set.of("button", "submit", "reset");
+    private static final Set<String> ELEMENT_EVENTS = Set.of("click", "mouseover", "mouseout", "dblclick", "contextmenu");
+    private static final Set<String> SIDES = Set.of("top", "bottom", "left", "right");
+
+    private static final Pattern CLASS_UNSAFE = Pattern.compile("[^a-zA-Z0-9_\\-가-힣]");
+    private static final Pattern STATE_SAFE = Pattern.compile("(:{1,2}[a-zA-Z-]+)*");
+    private static final Pattern CSS_UNSAFE = Pattern.compile("[;{}<>\"\\\\\\r\\n]");
+    private static final Pattern NUMBER = Pattern.compile("\\d+(\\.\\d+)?");
+
+    private final CompilerProperties props;
+    private final WeightedLruCache<String, Fragment> fragments;
+
+    public BlocklyCompiler(CompilerProperties props, MeterRegistry registry) {
+        this.props = props;
+        this.fragments = new WeightedLruCache<>(props.getMaxFragmentWeightBytes(), Fragment::weight);
+
+        FunctionCounter.builder("webcrafter.compiler.cache.hits", fragments, WeightedLruCache::hits).register(registry);
+        FunctionCounter.builder("webcrafter.compiler.cache.misses", fragments, WeightedLruCache::misses).register(registry);
+        FunctionCounter.builder("webcrafter.compiler.cache.evictions", fragments, WeightedLruCache::evictions).register(registry);
+        Gauge.builder("webcrafter.compiler.cache.size", fragments, WeightedLruCache::size).register(registry);
+        Gauge.builder("webcrafter.compiler.cache.weight", fragments, WeightedLruCache::weight)
+                .baseUnit("bytes").register(registry);
+    }
+
+    // 1. 페이지 컴파일 (세 워크스페이스 모두 같은 규칙 → AI가 layout에 style_tag를 섞어 넣어도 CSS로 나옴)
+    public CompiledPage compile(UserWebPage page) {
+        StringBuilder html = new StringBuilder();
+        StringBuilder css = new StringBuilder();
+        StringBuilder js = new StringBuilder();
+
+        for (String raw : new String[] { page.getLayoutData(), page.getStyleData(), page.getLogicData() }) {
+            for (BlockNode node : BlocklyReader.read(raw, props.getMaxDepth())) {
+                Fragment f = fragment(node);
+                html.append(f.html());
+                css.append(f.css());
+                js.append(f.js());
+            }
+        }
+        return new CompiledPage(html.toString(), css.toString(), js.toString());
+    }
+
+    // 2. subtree 결과 캐시 (자식도 각자 캐시를 거치므로 바뀐 경로만 다시 만들어짐)
+    private Fragment fragment(BlockNode node) {
+        if (!props.isEnabled()) return build(node);
+        return fragments.getOrLoad(node.hash, () -> build(node));
+    }
+
+    private Fragment join(List<BlockNode> nodes) {
+        if (nodes.isEmpty()) return Fragment.EMPTY;
+        if (nodes.size() == 1) return fragment(nodes.get(0));
+
+        StringBuilder html = new StringBuilder();
+        StringBuilder css = new StringBuilder();
+        StringBuilder decl = new StringBuilder();
+        StringBuilder js = new StringBuilder();
+        for (BlockNode n : nodes) {
+            Fragment f = fragment(n);
+            html.append(f.html());
+            css.append(f.css());
+            decl.append(f.decl());
+            js.append(f.js());
+        }
+        return new Fragment(html.toString(), css.toString(), decl.toString(), js.toString());
+    }
+
+    // 3. 블록별 규칙
+    private Fragment build(BlockNode b) {
+        return switch (b.type) {
+            // ---------- 화면 구성 (Layout.vue) ----------
+            case "layout_area" -> container(b, pick(b.field("TAG"), AREA_TAGS, "section"), cls(b, "ELEMENT_CLASS", "wc-area"));
+            case "layout_box" -> container(b, pick(b.field("TAG"), BOX_TAGS, "div"), cls(b, "ELEMENT_CLASS", "wc-box"));
+            case "layout_ul" -> container(b, "ul", cls(b, "ELEMENT_CLASS", "list-container"));
+            case "layout_li" -> container(b, "li", cls(b, "ELEMENT_CLASS", "list-item"));
+            case "layout_form" -> container(b, "form", cls(b, "ELEMENT_CLASS", "wc-form"));
+            case "layout_form_field" -> {
+                String extra = "TRUE".equals(b.field("ADV")) ? safeClass(b.field("EXTRA_CLASS"), "") : "";
+                yield container(b, "div", cls(b, "ELEMENT_CLASS", "wc-field") + (extra.isEmpty() ? "" : " " + extra));
+            }
+            case "layout_divider" -> html("<hr class=\"" + cls(b, "ELEMENT_CLASS", "wc-divider") + "\" />\n");
+
+            // ---------- 콘텐츠 (Content.vue) ----------
+            case "content_heading" -> {
+                String level = pick(b.field("LEVEL"), HEADING_TAGS, "h2");
+                yield element(level, cls(b, "NAME", "제목"), "", text(b, "TEXT", ""));
+            }
+            case "content_button" -> element("button", cls(b, "NAME", "버튼"),
+                    " type=\"" + pick(b.field("BTN_TYPE"), BUTTON_TYPES, "button") + "\"", text(b, "LABEL", ""));
+            case "content_text" -> element("span", cls(b, "NAME", "텍스트"), "", text(b, "TEXT", ""));
+            case "content_paragraph" -> element("p", cls(b, "NAME", "문단"), "", text(b, "TEXT", ""));
+            case "content_label" -> element("label", cls(b, "NAME", "label"), "", text(b, "TEXT", "Label"));
+            case "content_strong" -> element("strong", cls(b, "NAME", "strong"), "", text(b, "TEXT", ""));
+            case "content_em" -> element("em", cls(b, "NAME", "em"), "", text(b, "TEXT", ""));
+            case "content_link" -> element("a", cls(b, "NAME", "링크"),
+                    " href=\"" + escapeText(linkHref(b.field("HREF"))) + "\"", text(b, "TEXT", ""));
+            case "content_image" -> html("<img class=\"" + cls(b, "NAME", "이미지") + "\" src=\""
+                    + escapeText(imageSrc(b.field("SRC"))) + "\" />\n");
+            case "content_input" -> {
+                String type = b.field("TYPE");
+                String placeholder = b.field("PLACEHOLDER");
+                yield html("<input class=\"" + cls(b, "NAME", "input") + "\""
+                        + (isBlank(type) ? "" : " type=\"" + escapeText(type.trim()) + "\"")
+                        + (isBlank(placeholder) ? "" : " placeholder=\"" + escapeText(placeholder) + "\"")
+                        + " />\n");
+            }
+            case "content_textarea" -> element("textarea", cls(b, "NAME", "textarea"), "", "");
+            case "content_select" -> html("<select class=\"" + cls(b, "NAME", "select") + "\">\n"
+                    + "  <option>" + text(b, "OPT_TEXT_1", "옵션1") + "</option>\n"
+                    + "  <option>" + text(b, "OPT_TEXT_2", "옵션2") + "</option>\n"
+                    + "</select>\n");
+            case "content_checkbox" -> html("<label class=\"" + cls(b, "NAME", "checkbox") + "\">\n"
+                    + "  <input type=\"checkbox\" />\n"
+                    + "  <span>" + text(b, "LABEL", "동의합니다") + "</span>\n"
+                    + "</label>\n");
+            case "content_radio" -> html("<label class=\"" + cls(b, "NAME", "radio") + "\">\n"
+                    + "  <input type=\"radio\" name=\"" + escapeText(orDefault(b.field("GROUP"), "group1")) + "\" />\n"
+                    + "  <span>" + text(b, "LABEL", "선택") + "</span>\n"
+                    + "</label>\n");
+            case "content_br" -> html("<br />\n");
+
+            // ---------- 스타일 (Style.vue, Color.vue, Flex.vue) ----------
+            case "style_tag" -> {
+                String selector = safeClass(orDefault(b.field("SELECTOR"), "container").trim().replaceFirst("^[.#]", ""), "container");
+                String state = orDefault(b.field("STATE"), "");
+                if (!STATE_SAFE.matcher(state).matches()) state = "";
+                yield rule("." + selector + state, join(b.input("BODY")));
+            }
+            case "style_tag_all" -> rule("#wrapper", join(b.input("BODY")));
+            case "style_display_flex" -> decl("display: flex !important;\n" + join(b.input("BODY")).decl());
+            case "style_size" -> {
+                StringBuilder sb = new StringBuilder();
+                String w = b.field("WIDTH");
+                String h = b.field("HEIGHT");
+                if (!isBlank(w) && !"auto".equals(w)) sb.append("width: ").append(withUnit(w)).append(" !important;\n");
+                if (!isBlank(h) && !"auto".equals(h)) sb.append("height: ").append(withUnit(h)).append(" !important;\n");
+                yield decl(sb.toString());
+            }
+            case "style_bg_color" -> decl("background-color: " + css(b.field("COLOR")) + " !important;\n");
+            case "style_text_color" -> decl("color: " + css(b.field("COLOR")) + " !important;\n");
+            case "style_border_radius" -> decl("border-radius: " + withUnit(b.field("RADIUS")) + ";\n");
+            case "style_padding" -> decl(spacing("padding", b));
+            case "style_margin" -> decl(spacing("margin", b));
+            case "style_justify_content" -> decl("justify-content: " + css(b.field("JUSTIFY")) + " !important;\n");
+            case "style_align_items" -> decl("align-items: " + css(b.field("ALIGN")) + " !important;\n");
+            case "style_flex_direction" -> decl("flex-direction: " + css(b.field("DIRECTION")) + " !important;\n");
+            case "style_flex_wrap" -> decl("flex-wrap: " + css(b.field("WRAP")) + " !important;\n");
+            case "style_display" -> decl("display: " + css(b.field("DISPLAY")) + ";\n");
+            case "style_font_size" -> decl("font-size: " + withUnit(b.field("SIZE")) + " !important;\n");
+            case "style_font_weight" -> decl("font-weight: " + css(b.field("WEIGHT")) + " !important;\n");
+            case "style_shadow" -> {
+                String type = "text-shadow".equals(b.field("TYPE")) ? "text-shadow" : "box-shadow";
+                yield decl(type + ": " + withUnit(orDefault(b.field("X"), "0")) + " " + withUnit(orDefault(b.field("Y"), "0"))
+                        + " " + withUnit(orDefault(b.field("BLUR"), "0")) + " " + css(b.field("COLOR")) + " !important;\n");
+            }
+
+            // ---------- 스크립트 (Interaction.vue) ----------
+            case "script_tag" -> js(join(b.input("BODY")).js());
+            case "event_page_load" -> js("window.addEventListener('DOMContentLoaded', function() {\n"
+                    + join(b.input("DO")).js() + "});\n");
+            case "event_element" -> {
+                String target = safeClass(b.field("TARGET_CLASS"), "");
+                if (target.isEmpty()) yield Fragment.EMPTY;
+                String when = pick(b.field("WHEN"), ELEMENT_EVENTS, "click");
+                yield js("document.addEventListener('" + when + "', function(e) {\n"
+                        + "  var target = e.target && e.target.closest ? e.target.closest('." + target + "') : null;\n"
+                        + "  if (target) {\n" + join(b.input("DO")).js() + "  }\n"
+                        + "}, true);\n");
+            }
+            case "action_alert" -> js("alert(" + jsString(orDefault(b.field("MESSAGE"), "")) + ");\n");
+
+            // 모르는 블록: 안쪽 HTML/CSS만 통과 (JS는 조건/반복 의미를 모르므로 버림)
+            default -> {
+                StringBuilder html = new StringBuilder();
+                StringBuilder css = new StringBuilder();
+                for (Map.Entry<String, List<BlockNode>> in : b.inputs.entrySet()) {
+                    Fragment f = join(in.getValue());
+                    html.append(f.html());
+                    css.append(f.css());
+                }
+                yield new Fragment(html.toString(), css.toString(), "", "");
+            }
+        };
+    }
+
+    // =========================================================
+    // 조립 도우미
+    // =========================================================
+    private Fragment container(BlockNode b, String tag, String cls) {
+        Fragment kids = join(b.input("CONTENT"));
+        return new Fragment("<" + tag + " class=\"" + cls + "\">\n" + kids.html() + "</" + tag + ">\n",
+                kids.css(), "", kids.js());
+    }
+
+    private static Fragment element(String tag, String cls, String attrs, String body) {
+        return html("<" + tag + " class=\"" + cls + "\"" + attrs + ">" + body + "</" + tag + ">\n");
+    }
+
+    private static Fragment rule(String selector, Fragment body) {
+        String decl = body.decl().trim();
+        if (decl.isEmpty()) return new Fragment("", body.css(), "", "");
+        return new Fragment("", selector + " {\n  " + decl.replace("\n", "\n  ") + "\n}\n" + body.css(), "", "");
+    }
+
+    private static Fragment html(String html) { return new Fragment(html, "", "", ""); }
+    private static Fragment decl(String decl) { return new Fragment("", "", decl, ""); }
+    private static Fragment js(String js) { return new Fragment("", "", "", js); }
+
+    private static String spacing(String prop, BlockNode b) {
+        String side = orDefault(b.field("SIDE"), "all");
+        String v1 = withUnit(b.field("VAL1"));
+        String v2 = isBlank(b.field("VAL2")) ? v1 : withUnit(b.field("VAL2"));
+        return switch (side) {
+            case "vertical" -> prop + "-top: " + v1 + " !important; " + prop + "-bottom: " + v2 + " !important;\n";
+            case "horizontal" -> prop + "-left: " + v1 + " !important; " + prop + "-right: " + v2 + " !important;\n";
+            default -> SIDES.contains(side)
+                    ? prop + "-" + side + ": " + v1 + " !important;\n"
+                    : prop + ": " + v1 + " !important;\n";
+        };
+    }
+
+    // =========================================================
+    // 값 정리 (프론트 safeClass / safeText / withUnit 과 같은 규칙)
+    // =========================================================
+    private static String cls(BlockNode b, String field, String fallback) {
+        return safeClass(b.field(field), fallback);
+    }
+
+    private static String safeClass(String raw, String fallback) {
+        String v = isBlank(raw) ? fallback : raw;
+        return CLASS_UNSAFE.matcher(v.trim().replaceAll("\\s+", "_")).replaceAll("");
+    }
+
+    private static String text(BlockNode b, String field, String fallback) {
+        String v = b.field(field);
+        return escapeText(isBlank(v) ? fallback : v);
+    }
+
+    static String escapeText(String s) {
+        StringBuilder sb = new StringBuilder(s.length() + 16);
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '&' -> sb.append("&amp;");
+                case '<' -> sb.append("&lt;");
+                case '>' -> sb.append("&gt;");
+                case '"' -> sb.append("&quot;");
+                default -> sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    // CSS 값: 선언/규칙/태그를 끊을 수 있는 문자 제거
+    private static String css(String raw) {
+        return raw == null ? "" : CSS_UNSAFE.matcher(raw).replaceAll("").trim();
+    }
+
+    private static String withUnit(String raw) {
+        String v = css(raw);
+        return NUMBER.matcher(v).matches() ? v + "px" : v;
+    }
+
+    // content_link 규칙: 내부 경로는 예시 주소로, 스킴 없으면 https:// (javascript: 등도 여기서 무력화)
+    private static String linkHref(String raw) {
+        String href = orDefault(raw, "#").trim();
+        String lower = href.toLowerCase();
+        if (href.startsWith("/") || href.startsWith("#") || lower.startsWith("wc://") || lower.startsWith("page:")) {
+            return "https://example.com";
+        }
+        if (!lower.startsWith("http://") && !lower.startsWith("https://")) {
+            return "https://" + href;
+        }
+        return href;
+    }
+
+    private static String imageSrc(String raw) {
+        String src = orDefault(raw, "https://via.placeholder.com/150").trim();
+        String lower = src.toLowerCase().replaceAll("\\s", "");
+        if (lower.startsWith("javascript:") || lower.startsWith("vbscript:")
+                || (lower.startsWith("data:") && !lower.startsWith("data:image/"))) {
+            return "https://via.placeholder.com/150";
+        }
+        return src;
+    }
+
+    // <script> 안에 넣는 문자열 리터럴 (</script>로 끊기지 않게 < 도 이스케이프)
+    private static String jsString(String s) {
+        StringBuilder sb = new StringBuilder(s.length() + 2).append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '<' -> sb.append("\\u003c");
+                case '\u2028' -> sb.append("\\u2028");
+                case '\u2029' -> sb.append("\\u2029");
+                default -> {
+                    if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+                    else sb.append(c);
+                }
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    private static String pick(String raw, Set<String> allowed, String fallback) {
+        String v = raw == null ? "" : raw.trim().toLowerCase();
+        return allowed.contains(v) ? v : fallback;
+    }
+
+    private static String orDefault(String v, String fallback) {
+        return isBlank(v) ? fallback : v;
+    }
+
+    private static boolean isBlank(String v) {
+        return v == null || v.isBlank();
+    }
+}
@@ -0,0 +1,284 @@
+package com.example.web_crafter_java.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.StreamReadConstraints;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * ✅ 저장된 Blockly 워크스페이스 문자열을 BlockNode 트리로 읽는 스트리밍 리더
+ * - XML(<xml><block ...>, AI 생성/예전 저장본)은 StAX, JSON(serialization.workspaces.save 결과)은 Jackson 스트리밍으로 읽음
+ *   → DOM/JsonNode 전체를 만들지 않고 블록 단위로 바로 BlockNode를 만듦
+ * - 블록이 끝날 때 자식 hash까지 합쳐서 subtree hash를 계산 (BlocklyCompiler 캐시 키)
+ * - 형식이 깨졌거나 너무 깊게 중첩된 입력은 IllegalArgumentException
+ */
+final class BlocklyReader {
+
+    private static final XMLInputFactory XML_FACTORY = createXmlFactory();
+
+    // 깊이 제한은 아래 maxDepth로 직접 검사 (Jackson 기본 1000은 긴 next 체인에서 걸림)
+    private static final JsonFactory JSON_FACTORY = JsonFactory.builder()
+            .streamReadConstraints(StreamReadConstraints.builder().maxNestingDepth(100_000).build())
+            .build();
+
+    private final int maxDepth;
+    private final MessageDigest digest;
+
+    private BlocklyReader(int maxDepth) {
+        this.maxDepth = maxDepth;
+        try {
+            this.digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // 워크스페이스의 최상위 블록들 (각 체인의 next를 순서대로 펼친 것)
+    static List<BlockNode> read(String raw, int maxDepth) {
+        if (raw == null) return List.of();
+        String trimmed = raw.trim();
+        if (trimmed.isEmpty() || trimmed.equals("{}") || trimmed.equals("<xml></xml>")) return List.of();
+
+        BlocklyReader reader = new BlocklyReader(maxDepth);
+        if (trimmed.startsWith("<")) return reader.readXml(trimmed);
+        if (trimmed.startsWith("{")) return reader.readJson(trimmed);
+        throw new IllegalArgumentException("INVALID_BLOCKLY");
+    }
+
+    // =========================================================
+    // XML (StAX)
+    // =========================================================
+    private List<BlockNode> readXml(String raw) {
+        XMLStreamReader r = null;
+        try {
+            r = XML_FACTORY.createXMLStreamReader(new StringReader(raw));
+            List<BlockNode> out = new ArrayList<>();
+            while (r.hasNext()) {
+                if (r.next() == XMLStreamConstants.START_ELEMENT && isBlockElement(r.getLocalName())) {
+                    readXmlChain(r, out, 1);
+                }
+            }
+            return out;
+        } catch (XMLStreamException e) {
+            throw new IllegalArgumentException("INVALID_BLOCKLY");
+        } finally {
+            if (r != null) {
+                try { r.close(); } catch (XMLStreamException ignored) {}
+            }
+        }
+    }
+
+    // <block> 시작 태그에서 호출 → 자기 자신 + next 체인을 out에 순서대로 추가
+    private void readXmlChain(XMLStreamReader r, List<BlockNode> out, int depth) throws XMLStreamException {
+        checkDepth(depth);
+        String type = r.getAttributeValue(null, "type");
+        Map<String, String> fields = new TreeMap<>();
+        Map<String, List<BlockNode>> inputs = new TreeMap<>();
+        List<BlockNode> next = List.of();
+
+        while (r.next() != XMLStreamConstants.END_ELEMENT) {
+            if (r.getEventType() != XMLStreamConstants.START_ELEMENT) continue;
+
+            String name = r.getAttributeValue(null, "name");
+            switch (r.getLocalName()) {
+                case "field" -> {
+                    String value = r.getElementText();
+                    if (name != null) fields.put(name, value);
+                }
+                case "statement", "value" -> {
+                    List<BlockNode> chain = readXmlConnection(r, depth);
+                    if (name != null && !chain.isEmpty()) inputs.put(name, chain);
+                }
+                case "next" -> next = readXmlConnection(r, depth);
+                default -> skipXml(r); // mutation, comment, data ...
+            }
+        }
+
+        out.add(node(type, fields, inputs));
+        out.addAll(next);
+    }
+
+    // <statement>/<value>/<next> 안의 블록 체인 (진짜 block이 없으면 shadow)
+    private List<BlockNode> readXmlConnection(XMLStreamReader r, int depth) throws XMLStreamException {
+        List<BlockNode> blocks = new ArrayList<>();
+        List<BlockNode> shadows = new ArrayList<>();
+        while (r.next() != XMLStreamConstants.END_ELEMENT) {
+            if (r.getEventType() != XMLStreamConstants.START_ELEMENT) continue;
+            switch (r.getLocalName()) {
+                case "block" -> readXmlChain(r, blocks, depth + 1);
+                case "shadow" -> readXmlChain(r, shadows, depth + 1);
+                default -> skipXml(r);
+            }
+        }
+        return blocks.isEmpty() ? shadows : blocks;
+    }
+
+    private static void skipXml(XMLStreamReader r) throws XMLStreamException {
+        int level = 1;
+        while (level > 0) {
+            int ev = r.next();
+            if (ev == XMLStreamConstants.START_ELEMENT) level++;
+            else if (ev == XMLStreamConstants.END_ELEMENT) level--;
+        }
+    }
+
+    private static boolean isBlockElement(String name) {
+        return name.equals("block") || name.equals("shadow");
+    }
+
+    // =========================================================
+    // JSON (Jackson streaming)
+    // { "blocks": { "languageVersion": 0, "blocks": [ {type, fields, inputs, next}, ... ] }, "variables": [...] }
+    // =========================================================
+    private List<BlockNode> readJson(String raw) {
+        try (JsonParser p = JSON_FACTORY.createParser(raw)) {
+            if (p.nextToken() != JsonToken.START_OBJECT) throw new IllegalArgumentException("INVALID_BLOCKLY");
+
+            List<BlockNode> out = new ArrayList<>();
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                String key = p.currentName();
+                JsonToken t = p.nextToken();
+                if (!"blocks".equals(key) || t != JsonToken.START_OBJECT) {
+                    p.skipChildren();
+                    continue;
+                }
+                while (p.nextToken() == JsonToken.FIELD_NAME) {
+                    String inner = p.currentName();
+                    if (p.nextToken() == JsonToken.START_ARRAY && "blocks".equals(inner)) {
+                        while (p.nextToken() == JsonToken.START_OBJECT) {
+                            readJsonChain(p, out, 1);
+                        }
+                    } else {
+                        p.skipChildren();
+                    }
+                }
+            }
+            return out;
+        } catch (IOException e) {
+            throw new IllegalArgumentException("INVALID_BLOCKLY");
+        }
+    }
+
+    // 블록 객체 시작({)에서 호출 → 자기 자신 + next 체인을 out에 순서대로 추가
+    private void readJsonChain(JsonParser p, List<BlockNode> out, int depth) throws IOException {
+        checkDepth(depth);
+        String type = null;
+        Map<String, String> fields = new TreeMap<>();
+        Map<String, List<BlockNode>> inputs = new TreeMap<>();
+        List<BlockNode> next = List.of();
+
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String key = p.currentName();
+            JsonToken t = p.nextToken();
+            switch (key) {
+                case "type" -> type = p.getValueAsString();
+                case "fields" -> {
+                    if (t == JsonToken.START_OBJECT) readJsonFields(p, fields);
+                    else p.skipChildren();
+                }
+                case "inputs" -> {
+                    if (t != JsonToken.START_OBJECT) {
+                        p.skipChildren();
+                        break;
+                    }
+                    while (p.nextToken() == JsonToken.FIELD_NAME) {
+                        String name = p.currentName();
+                        if (p.nextToken() != JsonToken.START_OBJECT) {
+                            p.skipChildren();
+                            continue;
+                        }
+                        List<BlockNode> chain = readJsonConnection(p, depth);
+                        if (!chain.isEmpty()) inputs.put(name, chain);
+                    }
+                }
+                case "next" -> {
+                    if (t == JsonToken.START_OBJECT) next = readJsonConnection(p, depth);
+                    else p.skipChildren();
+                }
+                default -> p.skipChildren(); // id, x, y, data, extraState, icons ...
+            }
+        }
+
+        out.add(node(type, fields, inputs));
+        out.addAll(next);
+    }
+
+    // { "block": {...}, "shadow": {...} } (진짜 block이 없으면 shadow)
+    private List<BlockNode> readJsonConnection(JsonParser p, int depth) throws IOException {
+        List<BlockNode> blocks = new ArrayList<>();
+        List<BlockNode> shadows = new ArrayList<>();
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String key = p.currentName();
+            JsonToken t = p.nextToken();
+            if (t == JsonToken.START_OBJECT && "block".equals(key)) readJsonChain(p, blocks, depth + 1);
+            else if (t == JsonToken.START_OBJECT && "shadow".equals(key)) readJsonChain(p, shadows, depth + 1);
+            else p.skipChildren();
+        }
+        return blocks.isEmpty() ? shadows : blocks;
+    }
+
+    // 값이 객체인 필드(변수 필드 {id: ...} 등)는 건너뜀
+    private static void readJsonFields(JsonParser p, Map<String, String> fields) throws IOException {
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String name = p.currentName();
+            JsonToken t = p.nextToken();
+            if (t.isScalarValue() && t != JsonToken.VALUE_NULL) fields.put(name, p.getText());
+            else p.skipChildren();
+        }
+    }
+
+    // =========================================================
+    // 공통
+    // =========================================================
+    private void checkDepth(int depth) {
+        if (depth > maxDepth) throw new IllegalArgumentException("BLOCKLY_TOO_DEEP");
+    }
+
+    // subtree hash = type + (필드 이름/값) + (입력 이름/자식 hash들), 이름순이라 저장 순서가 달라도 같은 값
+    private BlockNode node(String type, Map<String, String> fields, Map<String, List<BlockNode>> inputs) {
+        String safeType = Objects.requireNonNullElse(type, "");
+        digest.reset();
+        update(safeType);
+        for (Map.Entry<String, String> f : fields.entrySet()) {
+            update(f.getKey());
+            update(f.getValue());
+        }
+        for (Map.Entry<String, List<BlockNode>> in : inputs.entrySet()) {
+            update(in.getKey());
+            for (BlockNode child : in.getValue()) update(child.hash);
+            digest.update((byte) 1); // 입력 끝 표시
+        }
+        String hash = HexFormat.of().formatHex(digest.digest(), 0, 16);
+        return new BlockNode(safeType, fields, inputs, hash);
+    }
+
+    private void update(String s) {
+        digest.update(s.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+    }
+
+    private static XMLInputFactory createXmlFactory() {
+        XMLInputFactory f = XMLInputFactory.newFactory();
+        f.setProperty(XMLInputFactory.SUPPORT_DTD, false); // 외부 엔티티(XXE) 차단
+        f.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        f.setProperty(XMLInputFactory.IS_COALESCING, true);
+        return f;
+    }
+}
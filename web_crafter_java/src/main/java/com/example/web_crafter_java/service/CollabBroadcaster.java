@@ -0,0 +1,138 @@
+package com.example.web_crafter_java.service;
+
+import com.example.web_crafter_java.config.CborMessageConverter;
+import com.example.web_crafter_java.dto.CollabOp;
+
+import lombok.RequiredArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * ✅ 협업 op 중계를 tick 단위로 묶어서 보내는 브로드캐스터 (/topic/project/{webId}/block-updates)
+ * - 확정 op(seq 있음)는 하나도 빠짐없이 seq 순서대로 → 놓는 순간(drop)의 MOVE/BLOCK_CONNECTION은 항상 전달
+ * - 드래그 중간 위치(drag=true)는 (세션, 블록)마다 이번 tick의 마지막 위치 하나만 남김
+ * - 같은 세션이 그 블록을 놓으면(확정 op) 남아 있던 중간 위치는 버림
+ * - 프로젝트마다 tick당 프레임 1개(op 배열) → 메시지 수 × 접속자 수만큼 퍼지던 중계가 tick 수 × 접속자 수로 줄어듦
+ * - 확정 op가 든 프레임은 보내기 직전에 op 저널을 fsync (tick당 한 번 = group commit) → 중계된 op는 서버가 죽어도 복구됨
+ * - 형식은 구독 주소로 고름: .../block-updates = JSON, .../block-updates.cbor = CBOR(바이너리)
+ *   프레임은 형식마다 한 번만 인코딩되고(브로커가 같은 바이트를 구독자 전원에게), 구독자가 없는 형식은 인코딩하지 않음
+ */
+@Component
+@RequiredArgsConstructor
+public class CollabBroadcaster {
+
+    private static final Pattern COLLAB_TOPIC = Pattern.compile("/topic/project/\\d+/block-updates(\\.cbor)?");
+    private static final Map<String, Object> CBOR_HEADERS = Map.of(MessageHeaders.CONTENT_TYPE, CborMessageConverter.CBOR);
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final CollabJournal journal;
+
+    private record DragKey(String sessionId, String blockId) {}
+
+    // 다음 tick에 보낼 것들 (ConcurrentHashMap.compute 안에서만 고치고, tick은 remove로 통째로 가져감)
+    private static final class Pending {
+        final List<CollabOp> ops = new ArrayList<>();
+        final Map<DragKey, CollabOp> drags = new LinkedHashMap<>();
+    }
+
+    private final ConcurrentHashMap<Integer, Pending> pending = new ConcurrentHashMap<>();
+
+    // 구독 주소별 구독자 수, 세션별 (구독 id → 주소) — CollabSubscriptionListener가 갱신
+    private final ConcurrentHashMap<String, Integer> subscriberCounts = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Map<String, String>> sessionSubscriptions = new ConcurrentHashMap<>();
+
+    public static String jsonTopic(Integer webId) {
+        return "/topic/project/" + webId + "/block-updates";
+    }
+
+    public static String cborTopic(Integer webId) {
+        return jsonTopic(webId) + ".cbor";
+    }
+
+    // 1. 확정 op (CollabEngine이 seq를 매긴 순서 그대로 호출)
+    public void publish(Integer webId, String sessionId, CollabOp op) {
+        pending.compute(webId, (k, p) -> {
+            if (p == null) p = new Pending();
+            p.ops.add(op);
+            if (sessionId != null && op.getBlockId() != null) p.drags.remove(new DragKey(sessionId, op.getBlockId()));
+            return p;
+        });
+    }
+
+    // 2. 드래그 중간 위치 (같은 블록의 이전 위치는 덮어씀)
+    public void offerDrag(Integer webId, String sessionId, CollabOp op) {
+        pending.compute(webId, (k, p) -> {
+            if (p == null) p = new Pending();
+            DragKey key = new DragKey(sessionId, op.getBlockId());
+            p.drags.remove(key); // 다시 넣어서 순서도 최신으로
+            p.drags.put(key, op);
+            return p;
+        });
+    }
+
+    // 3. tick: 프로젝트마다 프레임 1개 (확정 op → 남은 중간 위치 순)
+    @Scheduled(fixedRateString = "${webcrafter.collab.broadcast-tick-ms:33}")
+    public void tick() {
+        for (Integer webId : pending.keySet()) {
+            Pending p = pending.remove(webId);
+            if (p == null) continue;
+
+            List<CollabOp> frame = new ArrayList<>(p.ops.size() + p.drags.size());
+            frame.addAll(p.ops);
+            frame.addAll(p.drags.values());
+            if (frame.isEmpty()) continue;
+            if (!p.ops.isEmpty()) journal.force(webId);
+            try {
+                if (hasSubscribers(jsonTopic(webId))) messagingTemplate.convertAndSend(jsonTopic(webId), frame);
+                if (hasSubscribers(cborTopic(webId))) messagingTemplate.convertAndSend(cborTopic(webId), frame, CBOR_HEADERS);
+            } catch (Exception ex) {
+                System.out.println("❌ [Collab] 중계 실패 webId=" + webId + " : " + ex.getMessage());
+            }
+        }
+    }
+
+    // =========================================================
+    // 구독 추적 (협업 주소만)
+    // =========================================================
+    public void onSubscribe(String sessionId, String subscriptionId, String destination) {
+        if (sessionId == null || subscriptionId == null || destination == null) return;
+        if (!COLLAB_TOPIC.matcher(destination).matches()) return;
+
+        String prev = sessionSubscriptions.computeIfAbsent(sessionId, k -> new ConcurrentHashMap<>()).put(subscriptionId, destination);
+        if (prev != null) decrement(prev);
+        subscriberCounts.merge(destination, 1, Integer::sum);
+    }
+
+    public void onUnsubscribe(String sessionId, String subscriptionId) {
+        if (sessionId == null || subscriptionId == null) return;
+        Map<String, String> subs = sessionSubscriptions.get(sessionId);
+        String destination = subs == null ? null : subs.remove(subscriptionId);
+        if (destination != null) decrement(destination);
+    }
+
+    public void onDisconnect(String sessionId) {
+        if (sessionId == null) return;
+        Map<String, String> subs = sessionSubscriptions.remove(sessionId);
+        if (subs == null) return;
+        for (String destination : subs.values()) decrement(destination);
+    }
+
+    private boolean hasSubscribers(String destination) {
+        Integer count = subscriberCounts.get(destination);
+        return count != null && count > 0;
+    }
+
+    private void decrement(String destination) {
+        subscriberCounts.computeIfPresent(destination, (k, c) -> c <= 1 ? null : c - 1);
+    }
+}
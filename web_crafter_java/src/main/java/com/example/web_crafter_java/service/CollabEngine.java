@@ -0,0 +1,473 @@
+package com.example.web_crafter_java.service;
+
+import com.example.web_crafter_java.config.CollabProperties;
+import com.example.web_crafter_java.dao.ProjectDao;
+import com.example.web_crafter_java.dto.CollabOp;
+import com.example.web_crafter_java.dto.CollabSync;
+import com.example.web_crafter_java.dto.UserWebPage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * ✅ 실시간 협업 문서 엔진 (서버가 기준 문서를 들고 op 순서를 정함)
+ * - 프로젝트마다 열린 페이지(layout/style/logic) 문서를 메모리에 두고, 들어온 op를 도착 순서대로 하나씩 적용
+ * - 적용된 op에만 프로젝트별 seq를 매겨서 CollabBroadcaster로 중계 → 모든 클라이언트가 같은 순서의 같은 op를 받음
+ * - 충돌 규칙: 먼저 도착한 op가 이김 (지워진 블록 이동/수정, 끼워진 블록의 좌표 이동, 순환 연결은 거절),
+ *   같은 필드/좌표는 마지막 op가 이김
+ * - 바뀐 문서는 snapshotIntervalMs마다 저장 버퍼(patchPage)로 내려씀 → 클라이언트 전체 저장(PUT)은 가끔 하는 체크포인트
+ * - 클라이언트가 전체 저장을 하면 그 저장본이 기준 → 해당 페이지 문서는 버리고 다음 op 때 다시 읽음
+ * - 확정 op는 CollabJournal에도 이어 씀 → 스냅샷이 DB까지 내려가면(체크포인트) 그 seq까지 저널을 비우고, 서버 시작 시 남은 op로 문서 복구
+ * - 최근 확정 op를 recentOps개까지 들고 있다가, 구독 직후 sync 요청에 (메모리 문서 + since-seq 이후 op)로 응답 → DB를 다시 안 읽음
+ */
+@Service
+@RequiredArgsConstructor
+public class CollabEngine {
+
+    private static final Set<String> MODES = Set.of("structure", "style", "logic");
+    private static final String PAGE_RESET = "PAGE_RESET"; // 저널 전용: 이 페이지는 전체 저장본이 기준 (복구 때 앞의 op 문서를 버림)
+
+    private final ProjectDao projectDao;
+    private final PageSaveBuffer pageSaveBuffer;
+    private final PageCache pageCache;
+    private final ObjectMapper objectMapper;
+    private final CollabProperties props;
+    private final CollabBroadcaster broadcaster;
+    private final CollabJournal journal;
+
+    private record DocKey(String pageName, String mode) {}
+
+    // 페이지 문서 하나 + 어느 revision 위에서 시작했는지
+    private static final class DocState {
+        final BlockDocument doc; // null = JSON 워크스페이스가 아님(예전 XML 저장본) → 중계만
+        int baseRevision;
+        boolean dirty;
+        long edits; // 적용된 op 수 → 잠금 밖에서 저장하는 동안 새 op가 왔는지 확인용
+
+        DocState(BlockDocument doc, int baseRevision) {
+            this.doc = doc;
+            this.baseRevision = baseRevision;
+        }
+    }
+
+    // 프로젝트 하나의 협업 상태 (이 객체로 잠금)
+    private static final class ProjectSession {
+        long seq;
+        long coveredFrom; // 이 seq '이후' op는 recent에 전부 있음
+        long durableSeq;  // 이 seq까지는 userWeb_pages(DB)에 반영됨 → 저널에서 지워도 됨
+        long checkpointSeq; // 스냅샷으로 저장 버퍼까지 넘긴 seq (아래 페이지들이 DB로 내려가면 durableSeq가 됨)
+        final Set<String> checkpointPages = new HashSet<>();
+        long lastActivity = System.currentTimeMillis();
+        final Map<DocKey, DocState> docs = new HashMap<>();
+        final ArrayDeque<CollabOp> recent = new ArrayDeque<>();
+
+        // seq를 시각 기반으로 시작 → 세션을 내렸다 다시 만들거나 서버가 재시작해도 seq가 뒤로 가지 않음
+        // (클라이언트는 번호가 건너뛰면 sync로 다시 맞춤)
+        ProjectSession() {
+            this.seq = System.currentTimeMillis() * 1000;
+            this.coveredFrom = seq;
+            this.durableSeq = seq;
+            this.checkpointSeq = seq;
+        }
+    }
+
+    private final ConcurrentHashMap<Integer, ProjectSession> sessions = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Integer, List<CollabOp>> unrecovered = new ConcurrentHashMap<>(); // 시작 때 복구 못 한 저널 op
+
+    // =========================================================
+    // 1. op 적용 → 적용된 op만 seq를 매겨서 중계 (거절이면 false, 아무것도 안 보냄)
+    // =========================================================
+    public boolean apply(Integer webId, String sessionId, CollabOp op) {
+        if (op == null) return false;
+        if (op.getType() == null) op.setType(CollabOp.MOVE); // 예전 클라이언트의 단순 이동
+
+        // 드래그 중간 위치는 문서에 적용하지 않음 (놓을 때 확정 op가 따로 옴) → 최신 위치만 중계
+        if (Boolean.TRUE.equals(op.getDrag()) && isPosition(op)) {
+            op.setSeq(null);
+            broadcaster.offerDrag(webId, sessionId, op);
+            return true;
+        }
+        op.setDrag(null);
+
+        if (!props.isEnabled()) {
+            broadcaster.publish(webId, sessionId, op);
+            return true;
+        }
+
+        ProjectSession session = sessionFor(webId);
+        if (session == null) return false; // 저널 복구 전 → 복구 안 된 op 위에 새 op를 쌓지 않음
+        synchronized (session) {
+            session.lastActivity = System.currentTimeMillis();
+
+            if (!applyToDoc(webId, session, op)) return false;
+
+            // 잠금 안에서 넘겨야 저널/중계 순서 = seq 순서 (저널 fsync는 중계 tick에서 모아서)
+            op.setSeq(++session.seq);
+            remember(session, op);
+            journal.append(webId, op);
+            broadcaster.publish(webId, sessionId, op);
+            return true;
+        }
+    }
+
+    // 페이지/모드를 모르는 op는 문서에 적용할 수 없으니 통과 (순서만 매겨서 중계)
+    private boolean applyToDoc(Integer webId, ProjectSession session, CollabOp op) {
+        if (op.getPageName() == null || op.getMode() == null) return true;
+        if (!MODES.contains(op.getMode())) return false;
+
+        DocKey key = new DocKey(op.getPageName(), op.getMode());
+        DocState state = session.docs.get(key);
+        if (state == null) {
+            state = load(webId, op.getPageName(), op.getMode());
+            if (state == null) return false; // 없는 페이지
+            session.docs.put(key, state);
+        }
+        if (state.doc != null) {
+            if (!state.doc.apply(op)) return false;
+            state.dirty = true;
+            state.edits++;
+        }
+        return true;
+    }
+
+    private void remember(ProjectSession session, CollabOp op) {
+        session.recent.addLast(op);
+        while (session.recent.size() > props.getRecentOps()) {
+            session.coveredFrom = session.recent.removeFirst().getSeq();
+        }
+    }
+
+    // =========================================================
+    // 2. 구독 직후 동기화: 메모리 문서 + since-seq 이후 op (DB 안 거침)
+    // - sinceSeq == null: 처음 들어옴 → 요청한 페이지/모드의 최신 문서만 (GET /data로 받은 저장본보다 앞서 있을 수 있음)
+    // - sinceSeq가 버퍼 범위 안: 그 이후 op만
+    // - 범위 밖(오래 끊겼거나 세션이 새로 만들어짐): reset → 클라이언트가 저장본부터 다시 로드
+    // =========================================================
+    public CollabSync sync(Integer webId, String pageName, String mode, Long sinceSeq) {
+        CollabSync res = new CollabSync();
+        res.setPageName(pageName);
+        res.setMode(mode);
+        if (!props.isEnabled()) return res; // seq가 없으니 이어받을 것도 없음
+
+        if (unrecovered.containsKey(webId) && !retryRestore(webId)) {
+            return res; // 저널 복구 전 → seq 없이 (편집 op도 거절 중이라 저장본 기준으로만 보게 됨)
+        }
+        ProjectSession session = sessions.get(webId);
+        if (session == null) {
+            // 메모리에 든 게 없음 = 저장 안 된 op 없음 → 저장본이 최신, 끊겨 있던 클라이언트만 다시 로드
+            res.setReset(sinceSeq != null);
+            return res;
+        }
+
+        synchronized (session) {
+            res.setSeq(session.seq);
+            DocState state = pageName == null || mode == null ? null : session.docs.get(new DocKey(pageName, mode));
+            String document = state != null && state.doc != null ? state.doc.serialize() : null;
+
+            if (sinceSeq == null) {
+                res.setDocument(document);
+                return res;
+            }
+            if (sinceSeq < session.coveredFrom || sinceSeq > session.seq) {
+                res.setReset(true);
+                res.setDocument(document);
+                return res;
+            }
+
+            List<CollabOp> ops = new ArrayList<>();
+            for (Iterator<CollabOp> it = session.recent.descendingIterator(); it.hasNext(); ) {
+                CollabOp op = it.next();
+                if (op.getSeq() <= sinceSeq) break;
+                ops.add(op);
+            }
+            Collections.reverse(ops);
+            res.setOps(ops);
+            return res;
+        }
+    }
+
+    private static boolean isPosition(CollabOp op) {
+        return (CollabOp.MOVE.equals(op.getType()) || CollabOp.UI_MOVE.equals(op.getType()))
+                && op.getBlockId() != null && op.getX() != null && op.getY() != null;
+    }
+
+    // =========================================================
+    // 3. 체크포인트: 클라이언트 전체 저장/삭제 시 해당 문서 버림
+    // =========================================================
+    public void invalidatePage(Integer webId, String pageName) {
+        if (unrecovered.containsKey(webId)) retryRestore(webId); // 복구 못 했으면 아래서 복구 대기 op 뒤에 표시만
+        ProjectSession session = sessions.get(webId);
+        if (session == null) {
+            markUnrecoveredReset(webId, pageName);
+            return;
+        }
+        synchronized (session) {
+            session.docs.keySet().removeIf(k -> k.pageName().equals(pageName));
+            // 저장본이 저장 버퍼에서 DB로 내려가기 전에는 저널을 비우지 않음
+            session.checkpointPages.add(pageName);
+
+            CollabOp reset = new CollabOp();
+            reset.setType(PAGE_RESET);
+            reset.setPageName(pageName);
+            reset.setSeq(session.seq);
+            journal.append(webId, reset);
+        }
+    }
+
+    // 복구 대기 중인 프로젝트의 전체 저장: 나중에 복구할 때 이 페이지의 앞선 op 문서를 버리도록 PAGE_RESET을 덧붙임
+    private void markUnrecoveredReset(Integer webId, String pageName) {
+        synchronized (unrecovered) {
+            List<CollabOp> ops = unrecovered.get(webId);
+            if (ops == null) return;
+            CollabOp reset = new CollabOp();
+            reset.setType(PAGE_RESET);
+            reset.setPageName(pageName);
+            reset.setSeq(ops.get(ops.size() - 1).getSeq());
+            List<CollabOp> next = new ArrayList<>(ops);
+            next.add(reset);
+            unrecovered.put(webId, next);
+            journal.append(webId, reset);
+        }
+    }
+
+    public void discardProject(Integer webId) {
+        unrecovered.remove(webId); // 지워질 프로젝트의 op는 복구할 필요 없음
+        ProjectSession session = sessions.remove(webId);
+        if (session == null) return;
+        synchronized (session) {
+            session.docs.clear();
+        }
+        journal.discard(webId);
+    }
+
+    // =========================================================
+    // 4. 주기적 스냅샷 (바뀐 문서만 저장 버퍼로) + 오래 조용한 프로젝트 내리기
+    //    문서 직렬화만 세션 잠금 안에서 하고, 저장(patchPage → DB 조회 가능)은 잠금 밖에서
+    //    → 저장이 느려도 그 프로젝트의 op 적용/중계가 멈추지 않음
+    // =========================================================
+    @Scheduled(fixedDelayString = "${webcrafter.collab.snapshot-interval-ms:5000}")
+    public synchronized void snapshot() {
+        for (Integer webId : unrecovered.keySet()) {
+            retryRestore(webId);
+        }
+
+        long idleBefore = System.currentTimeMillis() - props.getIdleEvictMs();
+        for (Map.Entry<Integer, ProjectSession> e : sessions.entrySet()) {
+            Integer webId = e.getKey();
+            ProjectSession session = e.getValue();
+            List<DirtyDoc> dirty;
+            synchronized (session) {
+                advanceCheckpoint(webId, session);
+                dirty = copyDirty(session);
+            }
+
+            writeDirty(webId, session, dirty);
+
+            synchronized (session) {
+                boolean clean = markCheckpoint(session);
+                // 저널까지 다 비워진(DB에 전부 반영된) 프로젝트만 내림
+                if (clean && session.durableSeq == session.seq && session.lastActivity < idleBefore
+                        && sessions.remove(webId, session)) {
+                    session.docs.clear();
+                    journal.release(webId);
+                }
+            }
+        }
+    }
+
+    // 서버 종료 시 남은 변경분을 저장 버퍼로 → 그 프로젝트만 바로 DB까지 내려서 저널도 비움
+    @PreDestroy
+    public synchronized void snapshotOnShutdown() {
+        for (Map.Entry<Integer, ProjectSession> e : sessions.entrySet()) {
+            Integer webId = e.getKey();
+            ProjectSession session = e.getValue();
+            List<DirtyDoc> dirty;
+            synchronized (session) {
+                dirty = copyDirty(session);
+            }
+            writeDirty(webId, session, dirty);
+            pageSaveBuffer.flushProject(webId);
+            synchronized (session) {
+                markCheckpoint(session);
+                advanceCheckpoint(webId, session);
+            }
+        }
+    }
+
+    // 저장 버퍼로 넘긴 체크포인트가 DB까지 내려갔으면 저널을 그 seq까지 비움
+    // (버퍼에 그 페이지가 아직 남아 있으면 다음 주기에 다시 확인)
+    private void advanceCheckpoint(Integer webId, ProjectSession session) {
+        if (session.checkpointSeq <= session.durableSeq) return;
+        for (String pageName : session.checkpointPages) {
+            if (pageSaveBuffer.getPendingPage(webId, pageName) != null) return;
+        }
+        session.durableSeq = session.checkpointSeq;
+        session.checkpointPages.clear();
+        journal.truncate(webId, session.durableSeq);
+    }
+
+    // 잠금 안에서 떠둔 dirty 문서 하나 (직렬화 결과 + 그때의 기준 revision/편집 수)
+    private record DirtyDoc(DocKey key, DocState state, String json, int baseRevision, long edits) {}
+
+    // 세션 잠금 안에서 호출: 바뀐 문서를 직렬화만 해둠
+    private static List<DirtyDoc> copyDirty(ProjectSession session) {
+        List<DirtyDoc> dirty = new ArrayList<>();
+        for (Map.Entry<DocKey, DocState> e : session.docs.entrySet()) {
+            DocState state = e.getValue();
+            if (!state.dirty) continue;
+            dirty.add(new DirtyDoc(e.getKey(), state, state.doc.serialize(), state.baseRevision, state.edits));
+        }
+        return dirty;
+    }
+
+    // 잠금 밖에서 호출: 저장 버퍼에 쓰고, 결과만 잠금 안에서 문서 상태에 반영
+    private void writeDirty(Integer webId, ProjectSession session, List<DirtyDoc> dirty) {
+        Map<String, Integer> written = new HashMap<>(); // 같은 페이지의 다음 모드는 방금 쓴 revision 위에
+        for (DirtyDoc d : dirty) {
+            String pageName = d.key().pageName();
+            String mode = d.key().mode();
+            int base = written.getOrDefault(pageName, d.baseRevision());
+            try {
+                // 문서를 읽어온 revision 위에만 씀 → 그 사이 누가 전체 저장했으면 충돌로 거절됨
+                int revision = pageSaveBuffer.patchPage(webId, pageName, base, cur -> {
+                    UserWebPage next = new UserWebPage();
+                    next.setId(cur.getId());
+                    next.setWebId(webId);
+                    next.setPageName(pageName);
+                    next.setLayoutData("structure".equals(mode) ? d.json() : cur.getLayoutData());
+                    next.setStyleData("style".equals(mode) ? d.json() : cur.getStyleData());
+                    next.setLogicData("logic".equals(mode) ? d.json() : cur.getLogicData());
+                    return next;
+                });
+                written.put(pageName, revision);
+                synchronized (session) {
+                    session.checkpointPages.add(pageName);
+                    // 같은 페이지의 다른 모드 문서도 새 revision 위에 있음
+                    for (Map.Entry<DocKey, DocState> other : session.docs.entrySet()) {
+                        if (other.getKey().pageName().equals(pageName)) other.getValue().baseRevision = revision;
+                    }
+                    // 저장하는 동안 op가 더 들어왔으면 dirty 유지 → 다음 주기에 그 위에 다시 씀
+                    if (d.state().edits == d.edits()) d.state().dirty = false;
+                }
+            } catch (PageConflictException | IllegalArgumentException ex) {
+                // 전체 저장(체크포인트)이 이겼거나 페이지가 지워짐 → 문서를 버리고 다음 op 때 새로 읽음
+                System.out.println("⚠️ [Collab] 스냅샷 건너뜀 webId=" + webId + ", page=" + pageName + " : " + ex.getMessage());
+                synchronized (session) {
+                    session.checkpointPages.add(pageName);
+                    session.docs.remove(d.key(), d.state());
+                }
+            } catch (Exception ex) {
+                // DB 오류 등은 dirty로 남겨두고 다음 주기에 재시도
+                System.out.println("❌ [Collab] 스냅샷 실패 webId=" + webId + ", page=" + pageName + " : " + ex.getMessage());
+            }
+        }
+    }
+
+    // 세션 잠금 안에서 호출: 남은 변경이 없으면 지금 seq까지가 저장 버퍼에 다 넘어간 것 → 다음 체크포인트 후보
+    private static boolean markCheckpoint(ProjectSession session) {
+        boolean clean = session.docs.values().stream().noneMatch(s -> s.dirty);
+        if (clean) session.checkpointSeq = session.seq;
+        return clean;
+    }
+
+    // =========================================================
+    // 5. 서버 시작 시 저널 복구: 남은 op를 저장본 위에 순서대로 다시 적용 (dirty → 다음 스냅샷 때 저장)
+    // - 이미 DB에 반영된 op가 섞여 있어도 같은 결과 (이동/필드는 덮어쓰기, 이미 있는 블록 생성/없는 블록 삭제는 거절)
+    // - seq도 이어받으므로 재연결한 클라이언트는 since-seq로 그대로 따라잡음
+    // - 복구에 실패한 프로젝트는 unrecovered에 남겨두고, 복구될 때까지 새 세션을 만들지 않음 (op/sync는 먼저 복구를 재시도)
+    //   → 복구 안 된 op 뒤에 새 seq가 쌓이거나, 새 세션의 체크포인트가 복구 안 된 저널을 지우는 일이 없음
+    // =========================================================
+    @PostConstruct
+    void recover() {
+        if (!props.isEnabled()) return;
+        journal.replay().forEach((webId, ops) -> {
+            unrecovered.put(webId, ops);
+            retryRestore(webId);
+        });
+    }
+
+    // op/sync/스냅샷 주기에서 사용할 세션 (저널 복구가 밀려 있으면 먼저 복구, 그래도 실패면 null)
+    private ProjectSession sessionFor(Integer webId) {
+        if (unrecovered.containsKey(webId) && !retryRestore(webId)) return null;
+        return sessions.computeIfAbsent(webId, k -> new ProjectSession());
+    }
+
+    // 복구는 드물어서 전체에 한 잠금 (같은 프로젝트를 두 스레드가 동시에 복구하지 않게)
+    private boolean retryRestore(Integer webId) {
+        synchronized (unrecovered) {
+            List<CollabOp> ops = unrecovered.get(webId);
+            if (ops == null) return true; // 그 사이 다른 스레드가 복구함
+
+            ProjectSession session;
+            try {
+                session = restore(webId, ops);
+            } catch (Exception ex) {
+                // DB를 못 읽는 등 → 저널은 그대로 두고 다음 op/sync/스냅샷 때 다시 시도
+                System.out.println("❌ [Collab] 저널 복구 실패 webId=" + webId + " : " + ex.getMessage());
+                return false;
+            }
+            // 세션을 먼저 공개한 뒤 unrecovered에서 뺌 → 그 사이 들어온 op는 복구된 세션으로
+            sessions.put(webId, session);
+            unrecovered.remove(webId);
+            journal.confirmReplay(webId);
+            return true;
+        }
+    }
+
+    // 저널 op로 세션 하나를 새로 만듦 (공개 전이라 잠금 불필요, 실패하면 예외)
+    private ProjectSession restore(Integer webId, List<CollabOp> ops) {
+        ProjectSession session = new ProjectSession();
+        long start = ops.get(0).getSeq() == null ? session.seq : ops.get(0).getSeq() - 1;
+        session.seq = session.coveredFrom = session.durableSeq = session.checkpointSeq = start;
+        int applied = 0;
+        for (CollabOp op : ops) {
+            if (op.getSeq() == null) continue;
+            if (PAGE_RESET.equals(op.getType())) {
+                session.docs.keySet().removeIf(k -> k.pageName().equals(op.getPageName()));
+                continue;
+            }
+            if (op.getSeq() <= session.seq) continue;
+            if (op.getSeq() != session.seq + 1) {
+                // 기록이 빠진 구간 → 그 앞 seq로는 이어받을 수 없음
+                session.recent.clear();
+                session.coveredFrom = op.getSeq() - 1;
+            }
+            session.seq = op.getSeq();
+            remember(session, op);
+            if (applyToDoc(webId, session, op)) applied++;
+        }
+        System.out.println("✅ [Collab] 저널 복구 webId=" + webId + " : op " + ops.size() + "개 중 " + applied + "개 적용");
+        return session;
+    }
+
+    // 버퍼(아직 안 내려간 저장본) → 캐시/DB 순으로 현재 페이지를 읽어 문서로
+    private DocState load(Integer webId, String pageName, String mode) {
+        UserWebPage page = pageSaveBuffer.getPendingPage(webId, pageName);
+        if (page == null) page = pageCache.getPage(webId, pageName, () -> projectDao.getPageData(webId, pageName));
+        if (page == null) return null;
+
+        String raw = switch (mode) {
+            case "style" -> page.getStyleData();
+            case "logic" -> page.getLogicData();
+            default -> page.getLayoutData();
+        };
+        int revision = page.getRevision() == null ? 0 : page.getRevision();
+        return new DocState(BlockDocument.parse(objectMapper, raw), revision);
+    }
+}
@@ -0,0 +1,336 @@
+package com.example.web_crafter_java.service;
+
+import com.example.web_crafter_java.config.CollabProperties;
+import com.example.web_crafter_java.dto.CollabOp;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * ✅ 협업 op 저널 (프로젝트별 append-only) — 서버가 죽어도 아직 페이지에 안 내려간 op를 되살림
+ * - 파일: {journalDir}/{webId}/{세그먼트 번호}.seg — 세그먼트는 journalSegmentBytes 크기로 잡아서 메모리 매핑, 레코드를 뒤에 이어 씀
+ * - 레코드: [본문 길이 int][CRC32 int][op JSON] — 길이 0(아직 안 쓴 영역)이나 CRC가 안 맞는 곳(쓰다 죽은 꼬리)에서 그 세그먼트 읽기를 멈춤
+ * - fsync는 op마다 하지 않고 모아서 한 번 (group commit): CollabBroadcaster가 tick마다 중계 직전에 force
+ *   → 다른 사람 화면에 보인 op는 디스크에도 있음, op당 DB 쓰기 없음
+ * - 세그먼트가 차면 새 세그먼트로 넘기고, 페이지 체크포인트가 userWeb_pages까지 내려가면 그 seq까지만 든 세그먼트는 지움 (CollabEngine이 truncate 호출)
+ * - 서버 시작 시 CollabEngine이 replay()로 남은 op를 받아 문서를 다시 만듦
+ */
+@Component
+@RequiredArgsConstructor
+public class CollabJournal {
+
+    private static final String SUFFIX = ".seg";
+    private static final int HEADER_BYTES = 8; // 길이 + CRC
+
+    private final CollabProperties props;
+    private final ObjectMapper objectMapper;
+
+    // 세그먼트 파일 하나
+    private static final class Segment {
+        final Path path;
+        long lastSeq;          // 이 세그먼트에 든 마지막 op의 seq (truncate 기준)
+        MappedByteBuffer buf;  // 쓰는 중인 세그먼트만 (닫히면 null)
+        boolean unreplayed;    // 시작 때 읽었지만 아직 문서에 복구 안 됨 → 복구 확인 전에는 절대 지우지 않음
+        int writePos;
+        int syncedPos;
+
+        Segment(Path path) {
+            this.path = path;
+        }
+    }
+
+    // 프로젝트 하나의 저널 (이 객체로 잠금)
+    private static final class ProjectJournal {
+        final Path dir;
+        final Deque<Segment> segments = new ArrayDeque<>(); // 오래된 순, 마지막 것이 쓰는 중일 수 있음
+        long nextNumber = 1;
+
+        ProjectJournal(Path dir) {
+            this.dir = dir;
+        }
+    }
+
+    private final ConcurrentHashMap<Integer, ProjectJournal> journals = new ConcurrentHashMap<>();
+
+    // =========================================================
+    // 1. 기록 (CollabEngine이 seq를 매긴 잠금 안에서 호출 → 파일 안 순서 = seq 순서)
+    // =========================================================
+    public void append(Integer webId, CollabOp op) {
+        if (!props.isJournalEnabled()) return;
+
+        byte[] payload;
+        try {
+            payload = objectMapper.writeValueAsBytes(op);
+        } catch (IOException e) {
+            System.out.println("❌ [Journal] op 직렬화 실패 webId=" + webId + " : " + e.getMessage());
+            return;
+        }
+
+        ProjectJournal j = journals.computeIfAbsent(webId, k -> new ProjectJournal(root().resolve(String.valueOf(k))));
+        synchronized (j) {
+            try {
+                int need = HEADER_BYTES + payload.length;
+                Segment seg = j.segments.peekLast();
+                if (seg == null || seg.buf == null || seg.writePos + need > seg.buf.capacity()) {
+                    if (seg != null && seg.buf != null) closeSegment(seg);
+                    seg = openSegment(j, need);
+                    j.segments.addLast(seg);
+                }
+
+                CRC32 crc = new CRC32();
+                crc.update(payload);
+                seg.buf.putInt(seg.writePos + 4, (int) crc.getValue());
+                seg.buf.put(seg.writePos + HEADER_BYTES, payload);
+                seg.buf.putInt(seg.writePos, payload.length); // 길이를 마지막에 → 읽는 쪽은 길이가 보이면 본문까지 있다고 봄 (디스크 순서는 CRC로 확인)
+                seg.writePos += need;
+                if (op.getSeq() != null) seg.lastSeq = Math.max(seg.lastSeq, op.getSeq());
+            } catch (IOException | UncheckedIOException e) {
+                System.out.println("❌ [Journal] 기록 실패 webId=" + webId + " : " + e.getMessage());
+            }
+        }
+    }
+
+    // =========================================================
+    // 2. group commit: 마지막 fsync 이후 쓴 구간만 한 번에 디스크로
+    // - force는 잠금 밖에서 → fsync 도중에도 다음 op 기록은 계속됨
+    // =========================================================
+    public void force(Integer webId) {
+        ProjectJournal j = journals.get(webId);
+        if (j == null) return;
+
+        Segment seg;
+        MappedByteBuffer buf;
+        int from;
+        int to;
+        synchronized (j) {
+            seg = j.segments.peekLast();
+            if (seg == null || seg.buf == null || seg.syncedPos == seg.writePos) return;
+            buf = seg.buf;
+            from = seg.syncedPos;
+            to = seg.writePos;
+        }
+
+        try {
+            buf.force(from, to - from);
+        } catch (UncheckedIOException e) {
+            System.out.println("❌ [Journal] fsync 실패 webId=" + webId + " : " + e.getMessage());
+            return;
+        }
+
+        synchronized (j) {
+            if (seg.syncedPos < to) seg.syncedPos = to;
+        }
+    }
+
+    // =========================================================
+    // 3. 체크포인트: uptoSeq까지가 userWeb_pages에 반영됨 → 그 안쪽만 든 세그먼트 삭제
+    // =========================================================
+    public void truncate(Integer webId, long uptoSeq) {
+        ProjectJournal j = journals.get(webId);
+        if (j == null) return;
+
+        synchronized (j) {
+            for (Iterator<Segment> it = j.segments.iterator(); it.hasNext(); ) {
+                Segment seg = it.next();
+                if (seg.unreplayed) break; // 복구 전 op는 DB에 반영된 적이 없음 (그 뒤도 순서상 남김)
+                if (seg.lastSeq > uptoSeq) break; // 뒤 세그먼트는 seq가 더 큼
+                if (seg.buf != null) seg.buf = null; // 쓰는 중이던 것도 다 덮였으면 닫음 (다음 op는 새 세그먼트로)
+                deleteFile(seg.path);
+                it.remove();
+            }
+        }
+    }
+
+    // CollabEngine이 replay한 op를 문서에 다 복구했을 때 → 이제부터 체크포인트로 지울 수 있음
+    public void confirmReplay(Integer webId) {
+        ProjectJournal j = journals.get(webId);
+        if (j == null) return;
+        synchronized (j) {
+            for (Segment seg : j.segments) seg.unreplayed = false;
+        }
+    }
+
+    // 프로젝트 세션을 내릴 때 (남은 세그먼트가 없을 때만 메모리에서 뺌)
+    public void release(Integer webId) {
+        ProjectJournal j = journals.get(webId);
+        if (j == null) return;
+        synchronized (j) {
+            if (j.segments.isEmpty()) journals.remove(webId, j);
+        }
+    }
+
+    // 프로젝트 삭제: 저널 통째로
+    public void discard(Integer webId) {
+        ProjectJournal j = journals.remove(webId);
+        Path dir = j != null ? j.dir : root().resolve(String.valueOf(webId));
+        if (j != null) {
+            synchronized (j) {
+                j.segments.clear();
+            }
+        }
+        if (!Files.isDirectory(dir)) return;
+        try (Stream<Path> files = Files.list(dir)) {
+            files.forEach(this::deleteFile);
+        } catch (IOException e) {
+            System.out.println("⚠️ [Journal] 삭제 실패 webId=" + webId + " : " + e.getMessage());
+        }
+        deleteFile(dir);
+    }
+
+    // =========================================================
+    // 4. 서버 시작 시 복구: 남은 세그먼트를 번호 순으로 읽어 프로젝트별 op 목록으로
+    // - 읽은 세그먼트는 닫힌 채로 목록에 남겨뒀다가 체크포인트 때 truncate로 지움, 새 op는 새 세그먼트에
+    // - 단, CollabEngine이 confirmReplay로 복구를 확인하기 전에는 truncate가 지우지 않음
+    // =========================================================
+    public Map<Integer, List<CollabOp>> replay() {
+        Map<Integer, List<CollabOp>> result = new TreeMap<>();
+        if (!props.isJournalEnabled() || !Files.isDirectory(root())) return result;
+
+        try (DirectoryStream<Path> dirs = Files.newDirectoryStream(root())) {
+            for (Path dir : dirs) {
+                Long id = parseNumber(dir.getFileName().toString(), "");
+                if (id == null || !Files.isDirectory(dir)) continue;
+                Integer webId = id.intValue();
+
+                ProjectJournal j = new ProjectJournal(dir);
+                List<CollabOp> ops = new ArrayList<>();
+                for (Path file : segmentFiles(dir)) {
+                    Segment seg = new Segment(file);
+                    readSegment(seg, ops);
+                    seg.unreplayed = true;
+                    j.segments.addLast(seg);
+                    j.nextNumber = parseNumber(file.getFileName().toString(), SUFFIX) + 1;
+                }
+                if (ops.isEmpty()) {
+                    for (Segment seg : j.segments) seg.unreplayed = false; // 복구할 op가 없으면 잡아둘 이유도 없음
+                }
+                if (!j.segments.isEmpty()) journals.put(webId, j);
+                if (!ops.isEmpty()) result.put(webId, ops);
+            }
+        } catch (IOException e) {
+            System.out.println("❌ [Journal] 복구용 디렉터리 읽기 실패 : " + e.getMessage());
+        }
+        return result;
+    }
+
+    // 정상 종료: 쓰던 세그먼트를 디스크로
+    @PreDestroy
+    public void forceOnShutdown() {
+        for (Integer webId : journals.keySet()) {
+            force(webId);
+        }
+    }
+
+    // =========================================================
+    // 내부
+    // =========================================================
+    private Path root() {
+        return Path.of(props.getJournalDir());
+    }
+
+    private Segment openSegment(ProjectJournal j, int need) throws IOException {
+        Files.createDirectories(j.dir);
+        Path path;
+        do {
+            path = j.dir.resolve(String.format("%020d%s", j.nextNumber++, SUFFIX));
+        } while (Files.exists(path)); // 지우지 못하고 남은 예전 파일은 건너뜀
+        int size = Math.max(props.getJournalSegmentBytes(), need); // op 하나가 세그먼트보다 크면 그 op 전용 크기로
+
+        Segment seg = new Segment(path);
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            seg.buf = ch.map(FileChannel.MapMode.READ_WRITE, 0, size); // 매핑은 채널을 닫아도 유지됨
+        }
+        syncDirectory(j.dir); // 새 파일 이름도 디스크에 남게
+        return seg;
+    }
+
+    // 다 찬 세그먼트: 남은 구간까지 디스크로 보내고 닫음
+    private void closeSegment(Segment seg) {
+        if (seg.syncedPos < seg.writePos) seg.buf.force();
+        seg.syncedPos = seg.writePos;
+        seg.buf = null;
+    }
+
+    private void readSegment(Segment seg, List<CollabOp> out) {
+        try (FileChannel ch = FileChannel.open(seg.path, StandardOpenOption.READ)) {
+            MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+            int pos = 0;
+            while (pos + HEADER_BYTES <= buf.capacity()) {
+                int length = buf.getInt(pos);
+                if (length <= 0 || pos + HEADER_BYTES + length > buf.capacity()) break; // 끝 (또는 쓰다 만 꼬리)
+
+                byte[] payload = new byte[length];
+                buf.get(pos + HEADER_BYTES, payload);
+                CRC32 crc = new CRC32();
+                crc.update(payload);
+                if ((int) crc.getValue() != buf.getInt(pos + 4)) break;
+
+                CollabOp op = objectMapper.readValue(payload, CollabOp.class);
+                out.add(op);
+                if (op.getSeq() != null) seg.lastSeq = Math.max(seg.lastSeq, op.getSeq());
+                pos += HEADER_BYTES + length;
+            }
+        } catch (IOException e) {
+            // 이 세그먼트에서 읽은 데까지만 복구
+            System.out.println("⚠️ [Journal] 세그먼트 읽기 중단 " + seg.path + " : " + e.getMessage());
+        }
+    }
+
+    private List<Path> segmentFiles(Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files
+                .filter(p -> parseNumber(p.getFileName().toString(), SUFFIX) != null)
+                .sorted(Comparator.comparing(p -> parseNumber(p.getFileName().toString(), SUFFIX)))
+                .toList();
+        }
+    }
+
+    private static Long parseNumber(String name, String suffix) {
+        if (!name.endsWith(suffix)) return null;
+        try {
+            return Long.parseLong(name.substring(0, name.length() - suffix.length()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private void deleteFile(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            // 매핑이 아직 안 풀린 파일(Windows) 등 → 남아도 다음 복구 때 같은 op를 한 번 더 적용할 뿐
+            System.out.println("⚠️ [Journal] 파일 삭제 실패 " + path + " : " + e.getMessage());
+        }
+    }
+
+    private static void syncDirectory(Path dir) {
+        try (FileChannel ch = FileChannel.open(dir, StandardOpenOption.READ)) {
+            ch.force(true);
+        } catch (IOException | UnsupportedOperationException e) {
+            // 디렉터리 fsync를 지원하지 않는 OS(Windows)는 건너뜀
+        }
+    }
+}
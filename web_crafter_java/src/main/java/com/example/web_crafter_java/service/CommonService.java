@@ -3,16 +3,73 @@ package com.example.web_crafter_java.service;
 import com.example.web_crafter_java.dao.CommonDao;
 import com.example.web_crafter_java.dto.StatsDto;
 import lombok.RequiredArgsConstructor;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+/**
+ * ✅ 플랫폼 통계 (랜딩 페이지)
+ * - 매 요청마다 COUNT(*) / SUM(hit) 전체 스캔을 하지 않도록, 시작 시 한 번 읽고 메모리 카운터로 유지
+ * - 회원가입 / 프로젝트 생성·삭제 / 조회수 flush 때마다 증감 (호출자 트랜잭션이 있으면 커밋된 뒤에만 반영)
+ * - 놓친 변경(직접 DB 수정 등)은 주기적으로 DB와 다시 맞춤
+ */
 @Service
 @RequiredArgsConstructor
 public class CommonService {
 
     private final CommonDao commonDao;
 
+    private final AtomicLong userCount = new AtomicLong();
+    private final AtomicLong projectCount = new AtomicLong();
+    private final AtomicLong totalViews = new AtomicLong();
+    private volatile boolean loaded;
+
     public StatsDto getPlatformStats() {
-        // DB에서 통계 정보 조회
-        return commonDao.selectPlatformStats();
+        if (!loaded) reconcile(); // 아직 첫 로딩 전이면 DB에서
+
+        StatsDto stats = new StatsDto();
+        stats.setUserCount(userCount.get());
+        stats.setProjectCount(projectCount.get());
+        stats.setTotalViews(totalViews.get());
+        return stats;
+    }
+
+    // 도메인 이벤트별 증감 (롤백된 변경이 카운터에 남지 않게 AfterCommit으로)
+    public void onUserRegistered() {
+        AfterCommit.run(userCount::incrementAndGet);
+    }
+
+    public void onProjectCreated() {
+        AfterCommit.run(projectCount::incrementAndGet);
+    }
+
+    // 삭제된 프로젝트의 조회수도 합계에서 빠짐 (DB는 행이 지워지므로)
+    public void onProjectDeleted(long hits) {
+        AfterCommit.run(() -> {
+            projectCount.decrementAndGet();
+            totalViews.addAndGet(-hits);
+        });
+    }
+
+    public void onHitsFlushed(long hits) {
+        AfterCommit.run(() -> totalViews.addAndGet(hits));
+    }
+
+    // 시작 직후 한 번 + 주기적으로 DB 값과 다시 맞춤
+    @Scheduled(fixedDelayString = "${webcrafter.stats.reconcile-interval-ms:600000}")
+    public synchronized void reconcile() {
+        try {
+            // DB에서 통계 정보 조회
+            StatsDto db = commonDao.selectPlatformStats();
+            userCount.set(db.getUserCount());
+            projectCount.set(db.getProjectCount());
+            totalViews.set(db.getTotalViews());
+            loaded = true;
+        } catch (Exception ex) {
+            System.out.println("❌ [Stats] 통계 재계산 실패 : " + ex.getMessage());
+            if (!loaded) throw ex;
+        }
     }
-}
\ No newline at end of file
+}
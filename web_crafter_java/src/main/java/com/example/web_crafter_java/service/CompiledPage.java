@@ -0,0 +1,22 @@
+package com.example.web_crafter_java.service;
+
+/**
+ * ✅ BlocklyCompiler 결과 (페이지 하나의 정적 HTML / CSS / JS)
+ * - html: #wrapper 안에 들어갈 본문, css: style_tag들을 모은 스타일시트, js: 스크립트 블록 결과
+ * - document()로 그대로 열 수 있는 HTML 문서 한 장을 만듦 (미리보기/배포용)
+ */
+public record CompiledPage(String html, String css, String js) {
+
+    public String document(String title) {
+        StringBuilder sb = new StringBuilder(html.length() + css.length() + js.length() + 512);
+        sb.append("<!DOCTYPE html>\n<html lang=\"ko\">\n<head>\n")
+          .append("<meta charset=\"UTF-8\" />\n")
+          .append("<meta name=\"viewport\" content=\"width=device-width, initial-scale=1.0\" />\n")
+          .append("<title>").append(BlocklyCompiler.escapeText(title == null ? "" : title)).append("</title>\n");
+        if (!css.isEmpty()) sb.append("<style>\n").append(css).append("</style>\n");
+        sb.append("</head>\n<body>\n<div id=\"wrapper\">\n").append(html).append("</div>\n");
+        if (!js.isEmpty()) sb.append("<script>\n").append(js).append("</script>\n");
+        sb.append("</body>\n</html>\n");
+        return sb.toString();
+    }
+}
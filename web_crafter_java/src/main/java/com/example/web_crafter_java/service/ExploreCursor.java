@@ -0,0 +1,33 @@
+package com.example.web_crafter_java.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * ✅ 탐색 페이지 이어보기 커서 (마지막으로 받은 항목의 updateDate, id, 색인 검색이면 점수까지)
+ * - 클라이언트에는 base64url 문자열로만 나가므로 내부 형식이 바뀌어도 API는 그대로
+ */
+public record ExploreCursor(LocalDateTime updateDate, Long id, Long score) {
+
+    public String encode() {
+        String raw = updateDate + "|" + id + (score == null ? "" : "|" + score);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // 빈 문자열 = 첫 페이지 (null 반환), 형식이 틀리면 IllegalArgumentException
+    public static ExploreCursor decode(String token) {
+        if (token == null || token.isBlank()) return null;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            return new ExploreCursor(
+                    LocalDateTime.parse(parts[0]),
+                    Long.parseLong(parts[1]),
+                    parts.length > 2 ? Long.valueOf(parts[2]) : null);
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("INVALID_CURSOR");
+        }
+    }
+}
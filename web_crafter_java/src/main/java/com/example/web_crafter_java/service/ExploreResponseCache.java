@@ -0,0 +1,87 @@
+package com.example.web_crafter_java.service;
+
+import com.example.web_crafter_java.config.ExploreCacheProperties;
+
+import lombok.RequiredArgsConstructor;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * ✅ 탐색 목록 응답 캐시 (짧은 TTL + single-flight)
+ * - 같은 (정렬, 검색어, 커서/페이지, 크기) 요청이 몰리면 DB 조회는 한 번만 하고 나머지는 그 결과를 기다려 같이 씀
+ * - 값은 직렬화가 끝난 JSON 바이트 → 요청마다 Jackson 인코딩을 다시 하지 않음
+ * - 프로젝트 생성/이름 변경/삭제 커밋 후 전체 무효화 (무효화 전에 시작된 조회 결과는 저장하지 않음)
+ */
+@Component
+@RequiredArgsConstructor
+public class ExploreResponseCache {
+
+    public record Key(String sort, String keyword, String cursor, int page, int size) {}
+
+    private record Entry(CompletableFuture<byte[]> body, long createdAt) {}
+
+    private final ExploreCacheProperties props;
+
+    private final ConcurrentHashMap<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    public byte[] get(Key key, Supplier<byte[]> loader) {
+        if (!props.isEnabled()) return loader.get();
+
+        long now = System.currentTimeMillis();
+        Entry cached = entries.get(key);
+        if (cached != null && !isExpired(cached, now)) return join(cached);
+
+        // 만료/없음 → 내가 조회를 맡거나, 방금 다른 스레드가 맡았으면 그걸 기다림
+        Entry mine = new Entry(new CompletableFuture<>(), now);
+        Entry winner = entries.compute(key, (k, cur) -> cur != null && !isExpired(cur, now) ? cur : mine);
+        if (winner != mine) return join(winner);
+
+        long gen = generation.get();
+        try {
+            byte[] body = loader.get();
+            mine.body().complete(body);
+            if (generation.get() != gen) entries.remove(key, mine); // 조회 중 무효화됨 → 다음 요청은 새로 조회
+            evictIfFull(now);
+            return body;
+        } catch (Throwable ex) {
+            // Error(OOM 등)도 여기서 정리해야 기다리던 요청들이 영원히 멈추지 않고, 실패한 항목이 남지 않음
+            entries.remove(key, mine);
+            mine.body().completeExceptionally(ex);
+            throw ex;
+        }
+    }
+
+    // 트랜잭션 안에서 호출되면 커밋 후에 비움 (커밋 전 옛 목록이 다시 캐시되는 것 방지)
+    public void invalidateAll() {
+        AfterCommit.run(() -> {
+            generation.incrementAndGet();
+            entries.clear();
+        });
+    }
+
+    private boolean isExpired(Entry e, long now) {
+        return now - e.createdAt() > props.getTtlMs() || e.body().isCompletedExceptionally();
+    }
+
+    private void evictIfFull(long now) {
+        if (entries.size() <= props.getMaxEntries()) return;
+        entries.values().removeIf(e -> e.body().isDone() && isExpired(e, now));
+        if (entries.size() > props.getMaxEntries()) entries.clear(); // 검색어가 제각각인 폭주 → 그냥 비움
+    }
+
+    private static byte[] join(Entry e) {
+        try {
+            return e.body().join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException re) throw re; // 잘못된 커서 등은 원래 예외 그대로
+            throw ex;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.web_crafter_java.service;
+
+import com.example.web_crafter_java.config.HitCounterProperties;
+import com.example.web_crafter_java.dao.ProjectDao;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * ✅ 조회수 누적기
+ * - 조회마다 UPDATE userWeb SET hit = hit + 1 을 하면 인기 프로젝트 한 행에 락이 몰리므로
+ *   프로젝트별 LongAdder(스레드별로 칸이 나뉜 lock-free 카운터)에 더해두고,
+ *   몇 초마다 모인 값을 multi-row UPDATE 한 번으로 내려씁니다.
+ * - 같은 사람(로그인 회원 / 세션)이 dedupeWindowMs 안에 다시 본 건 세지 않음
+ * - 아직 안 내려간 값은 pendingHits()로 더해서 보여줌
+ */
+@Component
+@RequiredArgsConstructor
+public class HitCounter {
+
+    private final ProjectDao projectDao;
+    private final HitCounterProperties props;
+    private final ProjectRanking projectRanking;
+    private final CommonService commonService;
+
+    private record ViewKey(String viewer, Integer webId) {}
+
+    private final ConcurrentHashMap<Integer, LongAdder> pending = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<ViewKey, Long> recentViews = new ConcurrentHashMap<>(); // 값: 만료 시각(ms)
+
+    // 1. 조회 1회 기록 (반환값: 실제로 센 경우 true)
+    public boolean record(Integer webId, String viewer) {
+        if (viewer != null && !firstViewInWindow(new ViewKey(viewer, webId))) return false;
+
+        if (!props.isEnabled()) {
+            projectDao.increaseHit(webId);
+            projectRanking.recordHits(Map.of(webId, 1L));
+            commonService.onHitsFlushed(1);
+            return true;
+        }
+        pending.computeIfAbsent(webId, k -> new LongAdder()).increment();
+        return true;
+    }
+
+    // 2. 아직 DB에 안 내려간 조회수
+    public long pendingHits(Integer webId) {
+        LongAdder adder = pending.get(webId);
+        return adder == null ? 0 : adder.sum();
+    }
+
+    // 3. 주기적으로 모인 값을 한 번에 반영
+    @Scheduled(fixedDelayString = "${webcrafter.hit-counter.flush-interval-ms:5000}")
+    public synchronized void flush() {
+        // 행 락 순서를 항상 같게 (id 오름차순)
+        TreeMap<Integer, Long> batch = new TreeMap<>();
+        for (Map.Entry<Integer, LongAdder> e : pending.entrySet()) {
+            long n = e.getValue().sumThenReset();
+            if (n > 0) {
+                batch.put(e.getKey(), n);
+            } else if (pending.remove(e.getKey(), e.getValue())) {
+                // 지우는 사이에 옛 adder에 더해진 값은 새 adder로 옮김
+                long late = e.getValue().sumThenReset();
+                if (late > 0) pending.computeIfAbsent(e.getKey(), k -> new LongAdder()).add(late);
+            }
+        }
+
+        if (!batch.isEmpty()) {
+            try {
+                projectDao.increaseHits(batch);
+                projectRanking.recordHits(batch); // trending/popular 점수 반영
+                commonService.onHitsFlushed(batch.values().stream().mapToLong(Long::longValue).sum());
+            } catch (Exception ex) {
+                // 실패한 값은 다시 쌓아두고 다음 주기에 재시도
+                batch.forEach((webId, n) -> pending.computeIfAbsent(webId, k -> new LongAdder()).add(n));
+                System.out.println("❌ [HitCounter] 조회수 flush 실패 (" + batch.size() + "개 프로젝트) : " + ex.getMessage());
+            }
+        }
+
+        evictExpiredViews();
+    }
+
+    // 4. 서버 종료 시 남은 조회수 반영
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    // 5. 삭제된 프로젝트는 내려쓸 필요 없음
+    public void discardProject(Integer webId) {
+        pending.remove(webId);
+    }
+
+    private boolean firstViewInWindow(ViewKey key) {
+        long now = System.currentTimeMillis();
+        long until = now + props.getDedupeWindowMs();
+        boolean[] first = {false};
+        recentViews.compute(key, (k, expiresAt) -> {
+            if (expiresAt != null && expiresAt > now) return expiresAt;
+            first[0] = true;
+            return until;
+        });
+        return first[0];
+    }
+
+    private void evictExpiredViews() {
+        long now = System.currentTimeMillis();
+        recentViews.values().removeIf(expiresAt -> expiresAt <= now);
+        // 그래도 너무 많으면(봇 등) 통째로 비움 → 잠깐 중복 판별이 느슨해질 뿐 조회수는 계속 셈
+        if (recentViews.size() > props.getMaxTrackedViews()) {
+            recentViews.clear();
+        }
+    }
+}
@@ -35,13 +35,17 @@ public class MemberService {
 	private final JavaMailSender javaMailSender;
 	private final BCryptPasswordEncoder encoder;
 	private final RememberTokenDao rememberTokenDao;
+	private final SearchIndexService searchIndexService;
+	private final CommonService commonService;
 
 	public MemberService(MemberDao memberDao, JavaMailSender javaMailSender, BCryptPasswordEncoder encoder,
-			RememberTokenDao rememberTokenDao) {
+			RememberTokenDao rememberTokenDao, SearchIndexService searchIndexService, CommonService commonService) {
 		this.memberDao = memberDao;
 		this.javaMailSender = javaMailSender;
 		this.encoder = encoder;
 		this.rememberTokenDao = rememberTokenDao;
+		this.searchIndexService = searchIndexService;
+		this.commonService = commonService;
 	}
 
 	private static final SecureRandom SECURE_RANDOM = new SecureRandom();
@@ -184,6 +188,7 @@ public class MemberService {
 		m.setStatus(1);
 
 		this.memberDao.insert(m);
+		commonService.onUserRegistered(); // 플랫폼 통계 가입자 수
 	}
 
 	// 로그인 → memberId 반환
@@ -265,6 +270,9 @@ public Member updateProfile(Integer id, MemberUpdateReq req) {
             : currentMember.getBio();
 
     memberDao.updateProfile(id, nickname, bio);
+    if (!java.util.Objects.equals(nickname, currentMember.getNickname())) {
+        searchIndexService.indexOwnerNickname(id, nickname); // 탐색 검색 색인의 방장 닉네임 갱신
+    }
 
     return memberDao.findByIdWithoutPassword(id);
 }
@@ -0,0 +1,162 @@
+package com.example.web_crafter_java.service;
+
+import com.example.web_crafter_java.dao.PageBlobDao;
+import com.example.web_crafter_java.dao.PageBlobRefs;
+import com.example.web_crafter_java.dao.PageBlobRow;
+import com.example.web_crafter_java.dao.ProjectDao;
+import com.example.web_crafter_java.dto.UserWebPage;
+
+import lombok.RequiredArgsConstructor;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.List;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * ✅ 페이지 layout/style/logic 을 page_blob(내용 해시 기준 공유 저장소)에 쓰는 서비스
+ * - 페이지 행은 blob id만 들고, 같은 내용은 한 행을 공유 (copy-on-write: 수정 시 새 blob을 가리킴)
+ * - 페이지 쓰기/삭제/복사마다 refCount를 맞추고, 0이 된 blob은 주기적으로 GC
+ * - 내용이 바뀐 저장은 PageHistoryService에 히스토리로도 남김
+ * - blob id가 없는 예전 행은 userWeb_pages의 기존 컬럼 값을 그대로 읽음 (다음 저장 때 blob으로 옮겨짐)
+ */
+@Service
+@RequiredArgsConstructor
+public class PageBlobStore {
+
+    private static final int GC_BATCH = 1000;
+
+    private final PageBlobDao pageBlobDao;
+    private final ProjectDao projectDao;
+    private final PageHistoryService pageHistoryService;
+
+    // 1. 새 페이지 저장 (createProject / 새 페이지 추가)
+    @Transactional
+    public void insertPage(UserWebPage page) {
+        page.setLayoutBlobId(acquire(page.getLayoutData()));
+        page.setStyleBlobId(acquire(page.getStyleData()));
+        page.setLogicBlobId(acquire(page.getLogicData()));
+        projectDao.insertNewPage(page);
+    }
+
+    // 1-1. 여러 페이지 한 번에 저장 (프로젝트 가져오기용 multi-row INSERT)
+    @Transactional
+    public void insertPages(Integer webId, List<UserWebPage> pages) {
+        for (UserWebPage page : pages) {
+            page.setLayoutBlobId(acquire(page.getLayoutData()));
+            page.setStyleBlobId(acquire(page.getStyleData()));
+            page.setLogicBlobId(acquire(page.getLogicData()));
+        }
+        projectDao.insertPagesBatch(webId, pages);
+    }
+
+    // 2. 기존 페이지 갱신: 내용이 바뀐 필드만 새 blob으로 교체하고 옛 blob은 refCount-1
+    //    내용이 바뀌었으면 같은 트랜잭션에서 히스토리도 한 건 기록
+    @Transactional
+    public void updatePage(Integer webId, String oldPageName, UserWebPage page) {
+        PageBlobRefs cur = pageBlobDao.selectPageBlobRefs(webId, oldPageName); // 페이지 행 잠금 (커밋까지)
+        if (cur == null) return; // 그 사이 삭제된 페이지
+
+        byte[] layoutHash = hash(page.getLayoutData());
+        byte[] styleHash = hash(page.getStyleData());
+        byte[] logicHash = hash(page.getLogicData());
+        boolean changed = !Arrays.equals(layoutHash, cur.getLayoutHash())
+            || !Arrays.equals(styleHash, cur.getStyleHash())
+            || !Arrays.equals(logicHash, cur.getLogicHash());
+
+        // delta 계산용 이전 내용 (바뀐 게 없으면 안 읽음) + 첫 히스토리 스냅샷용 이전 blob id
+        UserWebPage before = changed ? projectDao.getPageData(webId, oldPageName) : null;
+        if (before != null) {
+            before.setLayoutBlobId(cur.getLayoutBlobId());
+            before.setStyleBlobId(cur.getStyleBlobId());
+            before.setLogicBlobId(cur.getLogicBlobId());
+        }
+
+        page.setLayoutBlobId(swap(cur.getLayoutBlobId(), cur.getLayoutHash(), page.getLayoutData(), layoutHash));
+        page.setStyleBlobId(swap(cur.getStyleBlobId(), cur.getStyleHash(), page.getStyleData(), styleHash));
+        page.setLogicBlobId(swap(cur.getLogicBlobId(), cur.getLogicHash(), page.getLogicData(), logicHash));
+
+        projectDao.updatePageData(webId, oldPageName, page);
+
+        if (before != null) {
+            Integer revision = page.getRevision() != null
+                ? page.getRevision()
+                : projectDao.getPageRevision(webId, page.getPageName()); // 이름 변경 직접쓰기는 DB가 +1
+            pageHistoryService.record(cur.getPageId(), before, page, revision);
+        }
+    }
+
+    // 3. 삭제 직전에 호출 (ON DELETE CASCADE로 행이 사라지기 전에 참조 해제)
+    //    페이지 행을 먼저 잠가서 updatePage와 같은 blob id를 두고 경합하지 않게 함 (호출자 트랜잭션에 합류)
+    @Transactional
+    public void releasePage(Integer webId, String pageName) {
+        pageBlobDao.lockPages(webId, pageName);
+        pageBlobDao.adjustRefs(webId, pageName, -1);
+        pageHistoryService.releasePage(webId, pageName);
+    }
+
+    @Transactional
+    public void releaseProject(Integer webId) {
+        pageBlobDao.lockPages(webId, null);
+        pageBlobDao.adjustRefs(webId, null, -1);
+        pageHistoryService.releaseProject(webId);
+    }
+
+    // 4. 리메이크 = 페이지 행을 blob id째 복사 + refCount 증가를 한 단위로 (복사만 되고 참조가 빠지는 일 없음)
+    @Transactional
+    public void copyProjectPages(Integer sourceWebId, Integer newWebId) {
+        projectDao.copyPages(sourceWebId, newWebId);
+        pageBlobDao.lockPages(newWebId, null);
+        pageBlobDao.adjustRefs(newWebId, null, 1);
+    }
+
+    // 5. 참조 0인 blob 정리
+    @Scheduled(fixedDelayString = "${webcrafter.blob-store.gc-interval-ms:600000}")
+    public void collectGarbage() {
+        int deleted;
+        int total = 0;
+        do {
+            deleted = pageBlobDao.deleteUnreferenced(GC_BATCH);
+            total += deleted;
+        } while (deleted == GC_BATCH);
+
+        if (total > 0) {
+            System.out.println("✅ [BlobStore] 참조 없는 blob " + total + "개 정리");
+        }
+    }
+
+    private Long swap(Long oldId, byte[] oldHash, String text, byte[] newHash) {
+        if (newHash != null && oldId != null && Arrays.equals(newHash, oldHash)) {
+            return oldId; // 내용 그대로 → 아무 것도 안 바꿈
+        }
+        Long newId = newHash == null ? null : acquire(text, newHash);
+        if (oldId != null) pageBlobDao.release(oldId);
+        return newId;
+    }
+
+    private Long acquire(String text) {
+        return text == null ? null : acquire(text, hash(text));
+    }
+
+    private Long acquire(String text, byte[] hash) {
+        PageBlobRow row = new PageBlobRow();
+        row.setHash(hash);
+        row.setContent(text);
+        pageBlobDao.acquire(row);
+        return row.getId();
+    }
+
+    static byte[] hash(String text) {
+        if (text == null) return null;
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
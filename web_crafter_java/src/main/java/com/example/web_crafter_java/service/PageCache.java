@@ -0,0 +1,116 @@
+package com.example.web_crafter_java.service;
+
+import com.example.web_crafter_java.config.PageCacheProperties;
+import com.example.web_crafter_java.dto.UserWebPage;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * ✅ 페이지 데이터 캐시 (ProjectDao.getPageData / selectPagesByWebId 앞단)
+ * - 같은 프로젝트를 여러 명이 열 때 매번 userWeb_pages ⋈ userWeb JOIN 하지 않도록 메모리에 보관
+ * - 페이지 수정/삭제/추가, 제목 변경, 프로젝트 삭제 시 정확히 해당 항목만 무효화
+ *   (트랜잭션 안에서 호출되면 커밋 후에 무효화 → 커밋 전 옛 값이 다시 캐시에 올라가는 것 방지)
+ * - 탐색 썸네일(GET /{webId}/preview)도 압축본까지 만들어서 따로 보관 (미리보기 저장 시 새로 만듦)
+ * - 적중/미스/크기는 MeterRegistry에 메트릭(webcrafter.page.cache.*)으로만 등록 (actuator 웹 노출은 health,info뿐)
+ */
+@Component
+public class PageCache {
+
+    private record PageKey(Integer webId, String pageName) {}
+
+    private final PageCacheProperties props;
+    private final WeightedLruCache<PageKey, UserWebPage> pages;
+    private final WeightedLruCache<Integer, List<UserWebPage>> pageLists;
+    private final WeightedLruCache<Integer, ProjectPreview> previews;
+
+    public PageCache(PageCacheProperties props, MeterRegistry registry) {
+        this.props = props;
+        this.pages = new WeightedLruCache<>(props.getMaxWeightBytes(), PageCache::weigh);
+        this.pageLists = new WeightedLruCache<>(props.getMaxListWeightBytes(), list -> 64L + list.size() * 128L);
+        this.previews = new WeightedLruCache<>(props.getMaxPreviewWeightBytes(), ProjectPreview::weight);
+
+        bindMetrics(registry, "page", pages);
+        bindMetrics(registry, "pageList", pageLists);
+        bindMetrics(registry, "preview", previews);
+    }
+
+    // 1. 조회 (캐시에 없으면 loader로 DB 조회 후 적재)
+    public UserWebPage getPage(Integer webId, String pageName, Supplier<UserWebPage> loader) {
+        if (!props.isEnabled()) return loader.get();
+        return pages.getOrLoad(new PageKey(webId, pageName), loader);
+    }
+
+    public List<UserWebPage> getPageList(Integer webId, Supplier<List<UserWebPage>> loader) {
+        if (!props.isEnabled()) return loader.get();
+        return pageLists.getOrLoad(webId, loader);
+    }
+
+    // 1-1. 캐시에 있을 때만 반환 (DB 조회 안 함)
+    public UserWebPage peekPage(Integer webId, String pageName) {
+        if (!props.isEnabled()) return null;
+        return pages.getIfPresent(new PageKey(webId, pageName));
+    }
+
+    public ProjectPreview getPreview(Integer webId, Supplier<ProjectPreview> loader) {
+        if (!props.isEnabled()) return loader.get();
+        return previews.getOrLoad(webId, loader);
+    }
+
+    // 1-2. 미리보기가 새로 저장되면 압축본까지 다시 만들어서 교체
+    public void putPreview(Integer webId, ProjectPreview preview) {
+        previews.invalidate(webId); // 진행 중인 옛 값 로딩이 캐시에 들어가지 않게
+        if (props.isEnabled() && preview != null) previews.put(webId, preview);
+    }
+
+    // 2. 무효화
+    public void invalidatePage(Integer webId, String pageName) {
+        AfterCommit.run(() -> pages.invalidate(new PageKey(webId, pageName)));
+    }
+
+    public void invalidatePageList(Integer webId) {
+        AfterCommit.run(() -> pageLists.invalidate(webId));
+    }
+
+    // 제목 변경/프로젝트 삭제: 해당 프로젝트의 페이지 전부 (페이지 응답에 title이 같이 들어감)
+    public void invalidateProject(Integer webId) {
+        AfterCommit.run(() -> {
+            pages.invalidateIf(k -> k.webId().equals(webId));
+            pageLists.invalidate(webId);
+            previews.invalidate(webId);
+        });
+    }
+
+    // 대략적인 메모리 크기 (String은 글자당 최대 2바이트)
+    private static long weigh(UserWebPage p) {
+        return 128L
+                + len(p.getLayoutData()) * 2L
+                + len(p.getStyleData()) * 2L
+                + len(p.getLogicData()) * 2L
+                + len(p.getTitle()) * 2L
+                + len(p.getPageName()) * 2L;
+    }
+
+    private static int len(String s) {
+        return s == null ? 0 : s.length();
+    }
+
+    private static void bindMetrics(MeterRegistry registry, String name, WeightedLruCache<?, ?> cache) {
+        FunctionCounter.builder("webcrafter.page.cache.hits", cache, WeightedLruCache::hits)
+                .tag("cache", name).register(registry);
+        FunctionCounter.builder("webcrafter.page.cache.misses", cache, WeightedLruCache::misses)
+                .tag("cache", name).register(registry);
+        FunctionCounter.builder("webcrafter.page.cache.evictions", cache, WeightedLruCache::evictions)
+                .tag("cache", name).register(registry);
+        Gauge.builder("webcrafter.page.cache.size", cache, WeightedLruCache::size)
+                .tag("cache", name).register(registry);
+        Gauge.builder("webcrafter.page.cache.weight", cache, WeightedLruCache::weight)
+                .tag("cache", name).baseUnit("bytes").register(registry);
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.web_crafter_java.service;
+
+import lombok.Getter;
+
+// patch 저장 시 base revision이 서버 최신 revision과 다를 때 (→ 409, 클라이언트는 전체 저장으로 재시도)
+@Getter
+public class PageConflictException extends RuntimeException {
+    private final int currentRevision;
+
+    public PageConflictException(int currentRevision) {
+        super("REVISION_CONFLICT");
+        this.currentRevision = currentRevision;
+    }
+}
@@ -0,0 +1,190 @@
+package com.example.web_crafter_java.service;
+
+import com.example.web_crafter_java.config.PageHistoryProperties;
+import com.example.web_crafter_java.dao.PageBlobDao;
+import com.example.web_crafter_java.dao.PageBlobRow;
+import com.example.web_crafter_java.dao.PageRevisionDao;
+import com.example.web_crafter_java.dao.PageRevisionRow;
+import com.example.web_crafter_java.dto.PagePatchOp;
+import com.example.web_crafter_java.dto.PageRevisionInfo;
+import com.example.web_crafter_java.dto.UserWebPage;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.RequiredArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * ✅ 페이지 저장 히스토리 (스냅샷 + delta 체인)
+ * - 페이지가 DB에 써질 때(PageBlobStore.updatePage, 같은 트랜잭션) 한 건씩 기록 → 요청 스레드가 아니라 flush 쪽 비용
+ * - snapshotEvery번째마다 SNAPSHOT(page_blob 참조만 +1), 나머지는 직전 기록 대비 DELTA(TextPatch op)
+ * - 복원은 "목표 이하 마지막 스냅샷 + delta 최대 snapshotEvery-1개" 적용으로 끝남
+ * - 히스토리 첫 기록 때 직전 버전(생성 당시 내용)도 스냅샷으로 남김
+ * - 오래된 구간은 주기적으로 정리해 그 구간 마지막 스냅샷만 남김
+ */
+@Service
+@RequiredArgsConstructor
+public class PageHistoryService {
+
+    private static final int LIST_LIMIT = 100;
+    private static final TypeReference<Map<String, List<PagePatchOp>>> DELTA_TYPE = new TypeReference<>() {};
+
+    private final PageRevisionDao pageRevisionDao;
+    private final PageBlobDao pageBlobDao;
+    private final PageHistoryProperties props;
+    private final ObjectMapper objectMapper;
+
+    // 1. 기록: before = 이번 쓰기 직전 DB 내용, after = 방금 쓴 내용 (둘 다 blob id 채워진 상태)
+    public void record(Integer pageId, UserWebPage before, UserWebPage after, int revision) {
+        if (!props.isEnabled()) return;
+
+        PageRevisionRow last = pageRevisionDao.selectLatest(pageId);
+        if (last != null && last.getRevision() >= revision) return; // 이미 기록된 버전
+
+        // 히스토리 첫 기록이면 쓰기 직전 내용(생성 당시 버전 등)을 먼저 스냅샷으로 남김 → 처음 상태로도 되돌릴 수 있게
+        if (last == null && before.getRevision() != null && before.getRevision() < revision) {
+            PageRevisionRow base = new PageRevisionRow();
+            base.setPageId(pageId);
+            base.setRevision(before.getRevision());
+            base.setKind("SNAPSHOT");
+            base.setChainLen(0);
+            base.setLayoutBlobId(retainOrAcquire(before.getLayoutBlobId(), before.getLayoutData()));
+            base.setStyleBlobId(retainOrAcquire(before.getStyleBlobId(), before.getStyleData()));
+            base.setLogicBlobId(retainOrAcquire(before.getLogicBlobId(), before.getLogicData()));
+            pageRevisionDao.insertRevision(base);
+            last = base;
+        }
+
+        PageRevisionRow row = new PageRevisionRow();
+        row.setPageId(pageId);
+        row.setRevision(revision);
+
+        if (last == null || last.getChainLen() + 1 >= props.getSnapshotEvery()) {
+            row.setKind("SNAPSHOT");
+            row.setChainLen(0);
+            row.setLayoutBlobId(retain(after.getLayoutBlobId()));
+            row.setStyleBlobId(retain(after.getStyleBlobId()));
+            row.setLogicBlobId(retain(after.getLogicBlobId()));
+        } else {
+            Map<String, List<PagePatchOp>> delta = new LinkedHashMap<>();
+            putDiff(delta, "layoutData", before.getLayoutData(), after.getLayoutData());
+            putDiff(delta, "styleData", before.getStyleData(), after.getStyleData());
+            putDiff(delta, "logicData", before.getLogicData(), after.getLogicData());
+
+            row.setKind("DELTA");
+            row.setChainLen(last.getChainLen() + 1);
+            row.setDeltaData(toJson(delta));
+        }
+
+        pageRevisionDao.insertRevision(row);
+    }
+
+    // 2. 목록 (최신순)
+    public List<PageRevisionInfo> listRevisions(Integer webId, String pageName) {
+        return pageRevisionDao.selectRevisions(webId, pageName, LIST_LIMIT);
+    }
+
+    // 3. 특정 버전 복원 (없거나 정리된 버전이면 null)
+    public UserWebPage getRevision(Integer webId, String pageName, int revision) {
+        PageRevisionRow snapshot = pageRevisionDao.selectSnapshotAtOrBefore(webId, pageName, revision);
+        if (snapshot == null) return null;
+
+        String layout = snapshot.getLayoutData();
+        String style = snapshot.getStyleData();
+        String logic = snapshot.getLogicData();
+        int reached = snapshot.getRevision();
+
+        if (reached != revision) {
+            for (PageRevisionRow d : pageRevisionDao.selectDeltas(snapshot.getPageId(), reached, revision)) {
+                Map<String, List<PagePatchOp>> delta = fromJson(d.getDeltaData());
+                layout = applyField(layout, delta.get("layoutData"));
+                style = applyField(style, delta.get("styleData"));
+                logic = applyField(logic, delta.get("logicData"));
+                reached = d.getRevision();
+            }
+            if (reached != revision) return null; // 목록에 없는 버전 (중간 저장이 합쳐졌거나 정리됨)
+        }
+
+        UserWebPage page = new UserWebPage();
+        page.setWebId(webId);
+        page.setPageName(pageName);
+        page.setLayoutData(layout);
+        page.setStyleData(style);
+        page.setLogicData(logic);
+        page.setRevision(revision);
+        return page;
+    }
+
+    // 4. 페이지/프로젝트 삭제 직전: 스냅샷이 잡고 있던 blob 참조 해제
+    public void releasePage(Integer webId, String pageName) {
+        pageRevisionDao.releaseSnapshotRefs(webId, pageName);
+    }
+
+    public void releaseProject(Integer webId) {
+        pageRevisionDao.releaseSnapshotRefs(webId, null);
+    }
+
+    // 5. 오래된 구간 정리 (retainDays 이전은 그 구간 마지막 스냅샷 하나만 남김)
+    //    앞선 delta와 스냅샷을 지우고, 지운 스냅샷이 잡고 있던 blob 참조도 같은 트랜잭션에서 해제
+    @Scheduled(fixedDelayString = "${webcrafter.history.compact-interval-ms:3600000}")
+    @Transactional
+    public void compact() {
+        if (!props.isEnabled()) return;
+
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(props.getRetainDays());
+        pageRevisionDao.releaseCompactedSnapshotRefs(cutoff);
+        int deleted = pageRevisionDao.deleteCompacted(cutoff);
+        if (deleted > 0) {
+            System.out.println("✅ [History] 오래된 히스토리 " + deleted + "건 정리");
+        }
+    }
+
+    private Long retain(Long blobId) {
+        if (blobId != null) pageBlobDao.retain(blobId);
+        return blobId;
+    }
+
+    // blob id가 없는 예전 행(기존 컬럼에 내용)은 스냅샷용 blob을 새로 확보 (refCount는 이 스냅샷 몫)
+    private Long retainOrAcquire(Long blobId, String text) {
+        if (blobId != null || text == null) return retain(blobId);
+        PageBlobRow row = new PageBlobRow();
+        row.setHash(PageBlobStore.hash(text));
+        row.setContent(text);
+        pageBlobDao.acquire(row);
+        return row.getId();
+    }
+
+    private static void putDiff(Map<String, List<PagePatchOp>> delta, String field, String before, String after) {
+        List<PagePatchOp> ops = TextPatch.diff(before, after);
+        if (!ops.isEmpty()) delta.put(field, ops);
+    }
+
+    private static String applyField(String base, List<PagePatchOp> ops) {
+        return ops == null ? base : TextPatch.apply(base, ops);
+    }
+
+    private String toJson(Map<String, List<PagePatchOp>> delta) {
+        try {
+            return objectMapper.writeValueAsString(delta);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Map<String, List<PagePatchOp>> fromJson(String json) {
+        try {
+            return objectMapper.readValue(json, DELTA_TYPE);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
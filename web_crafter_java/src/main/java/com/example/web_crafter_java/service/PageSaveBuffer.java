@@ -0,0 +1,255 @@
+package com.example.web_crafter_java.service;
+
+import com.example.web_crafter_java.config.SaveBufferProperties;
+import com.example.web_crafter_java.dao.ProjectDao;
+import com.example.web_crafter_java.dto.UserWebPage;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.UnaryOperator;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * ✅ 페이지 저장 write-behind 버퍼
+ * - IDE 자동저장마다 바로 UPDATE 하지 않고 (webId, pageName) 별 최신본만 메모리에 들고 있다가
+ *   주기적으로(또는 대기 건수가 maxPending을 넘으면) 한 번에 DB로 내려씁니다.
+ * - 같은 페이지를 여러 번 저장해도 flush 시점에는 UPDATE 1번으로 합쳐집니다.
+ * - 아직 DB에 안 내려간 페이지는 getPendingPage()로 조회해서 stale 데이터가 나가지 않게 합니다.
+ * - DB 쓰기는 건마다 별도 트랜잭션(REQUIRES_NEW) → 요청 트랜잭션 안에서 flush가 돌아도 그 롤백에 휩쓸리지 않고,
+ *   커밋이 끝난 뒤에만 버퍼에서 뺌
+ */
+@Component
+@RequiredArgsConstructor
+public class PageSaveBuffer {
+
+    private final ProjectDao projectDao;
+    private final SaveBufferProperties props;
+    private final PageCache pageCache;
+    private final PageBlobStore pageBlobStore;
+    private final SearchIndexService searchIndexService;
+    private final PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate writeTx; // 쓰기 한 건 = 독립 트랜잭션 하나
+
+    private record PageKey(Integer webId, String pageName) {}
+
+    private final ConcurrentHashMap<PageKey, UserWebPage> pendingPages = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Integer, String> pendingPreviews = new ConcurrentHashMap<>();
+
+    // flush/직접쓰기는 한 스레드씩만 (옛 버전이 새 버전을 덮어쓰는 역전 방지)
+    private final Object flushLock = new Object();
+
+    // DB에 페이지를 쓸 때마다 +1 (버퍼에서 빼기 전에) → compute 밖에서 미리 읽은 DB 값이 그 사이 낡았는지 확인용
+    private final AtomicLong writeEpoch = new AtomicLong();
+
+    @PostConstruct
+    void init() {
+        writeTx = new TransactionTemplate(transactionManager);
+        writeTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    // compute 안에서 DB를 읽지 않기 위한 재시도 신호 (미리 읽은 값이 낡았으면 다시 읽고 재시도)
+    private static final class StaleReadException extends RuntimeException {
+        StaleReadException() {
+            super(null, null, false, false);
+        }
+    }
+
+    // 1. 페이지 저장 요청 적재 (반환값: 이 저장본의 revision, 직접쓰기면 null)
+    public Integer savePage(Integer webId, String oldPageName, UserWebPage pageData) {
+        // 이름 변경(rename)은 드물고 DB 행 식별자가 바뀌므로 버퍼를 거치지 않고 바로 씁니다.
+        if (!props.isEnabled() || !oldPageName.equals(pageData.getPageName())) {
+            synchronized (flushLock) {
+                pageData.setRevision(null); // DB에서 revision + 1
+                writeTx.executeWithoutResult(status -> {
+                    pageBlobStore.updatePage(webId, oldPageName, pageData);
+                    // 안쪽 트랜잭션 커밋 후 무효화 (바깥 요청 트랜잭션과 무관)
+                    pageCache.invalidatePage(webId, oldPageName);
+                    pageCache.invalidatePage(webId, pageData.getPageName());
+                    pageCache.invalidatePageList(webId);
+                });
+                writeEpoch.incrementAndGet();
+                pendingPages.remove(new PageKey(webId, oldPageName)); // 커밋된 뒤에만 (옛 저장본은 새 이름 본에 덮임)
+            }
+            return null;
+        }
+
+        // revision은 버퍼가 매김 (같은 key의 compute는 직렬화되므로 +1이 겹치지 않음)
+        // 버퍼에 없을 때 필요한 DB revision은 compute 밖에서 미리 읽음 (compute 안 DB I/O는 map bin 전체를 막음)
+        PageKey key = new PageKey(webId, oldPageName);
+        while (true) {
+            long epoch = writeEpoch.get();
+            UserWebPage peek = pendingPages.get(key);
+            boolean readDb = peek == null || peek.getRevision() == null;
+            Integer dbRevision = readDb ? projectDao.getPageRevision(webId, oldPageName) : null;
+            try {
+                pendingPages.compute(key, (k, prev) -> {
+                    int cur;
+                    if (prev != null && prev.getRevision() != null) cur = prev.getRevision();
+                    else if (readDb && epoch == writeEpoch.get()) cur = dbRevision == null ? 0 : dbRevision;
+                    else throw new StaleReadException();
+                    pageData.setRevision(cur + 1);
+                    return pageData;
+                });
+                break;
+            } catch (StaleReadException retry) {
+                // 읽는 사이 flush가 끝나서 버퍼에서 빠짐 → DB를 다시 읽음
+            }
+        }
+
+        if (pendingPages.size() >= props.getMaxPending()) {
+            flush();
+        }
+        return pageData.getRevision();
+    }
+
+    // 1-1. patch 저장: base revision이 최신일 때만 patcher로 만든 새 페이지를 적재
+    public int patchPage(Integer webId, String pageName, int baseRevision, UnaryOperator<UserWebPage> patcher) {
+        PageKey key = new PageKey(webId, pageName);
+
+        UserWebPage next;
+        while (true) {
+            // 버퍼에 없을 때 쓸 DB 본은 compute 밖에서 미리 읽음 (읽는 사이 DB 쓰기가 있었으면 다시)
+            long epoch = writeEpoch.get();
+            UserWebPage loaded = pendingPages.containsKey(key) ? null : projectDao.getPageData(webId, pageName);
+            try {
+                next = pendingPages.compute(key, (k, prev) -> {
+                    UserWebPage cur;
+                    if (prev != null) cur = prev;
+                    else if (epoch == writeEpoch.get()) cur = loaded;
+                    else throw new StaleReadException();
+                    if (cur == null) throw new IllegalArgumentException("존재하지 않는 페이지입니다.");
+
+                    int curRevision = cur.getRevision() == null ? 0 : cur.getRevision();
+                    if (curRevision != baseRevision) throw new PageConflictException(curRevision);
+
+                    UserWebPage patched = patcher.apply(cur);
+                    patched.setRevision(curRevision + 1);
+                    return patched;
+                });
+                break;
+            } catch (StaleReadException retry) {
+                // 다시 읽고 재시도
+            }
+        }
+
+        if (!props.isEnabled()) {
+            synchronized (flushLock) {
+                writePage(key, next);
+            }
+        } else if (pendingPages.size() >= props.getMaxPending()) {
+            flush();
+        }
+        return next.getRevision();
+    }
+
+    // 2. 미리보기 HTML 저장 요청 적재 (프로젝트당 최신본 1개)
+    public void savePreview(Integer webId, String previewHtml) {
+        if (!props.isEnabled()) {
+            projectDao.updateProjectPreview(webId, previewHtml);
+            pageCache.putPreview(webId, ProjectPreview.fromHtml(previewHtml));
+            searchIndexService.indexPreview(webId, previewHtml);
+            return;
+        }
+        pendingPreviews.put(webId, previewHtml);
+    }
+
+    // 3. 아직 DB에 안 내려간 페이지 조회 (없으면 null)
+    public UserWebPage getPendingPage(Integer webId, String pageName) {
+        return pendingPages.get(new PageKey(webId, pageName));
+    }
+
+    public String getPendingPreview(Integer webId) {
+        return pendingPreviews.get(webId);
+    }
+
+    // 4. 삭제되는 페이지/프로젝트는 flush 대상에서 제외
+    public void discardPage(Integer webId, String pageName) {
+        synchronized (flushLock) {
+            pendingPages.remove(new PageKey(webId, pageName));
+        }
+    }
+
+    public void discardProject(Integer webId) {
+        synchronized (flushLock) {
+            pendingPages.keySet().removeIf(k -> k.webId().equals(webId));
+            pendingPreviews.remove(webId);
+        }
+    }
+
+    // 5. 특정 프로젝트만 즉시 내려쓰기 (리메이크처럼 DB를 직접 읽는 작업 전에 호출)
+    public void flushProject(Integer webId) {
+        synchronized (flushLock) {
+            for (Map.Entry<PageKey, UserWebPage> e : pendingPages.entrySet()) {
+                if (e.getKey().webId().equals(webId)) {
+                    writePage(e.getKey(), e.getValue());
+                }
+            }
+            String preview = pendingPreviews.get(webId);
+            if (preview != null) {
+                writePreview(webId, preview);
+            }
+        }
+    }
+
+    // 6. 주기적 flush
+    @Scheduled(fixedDelayString = "${webcrafter.save-buffer.flush-interval-ms:2000}")
+    public void flush() {
+        synchronized (flushLock) {
+            for (Map.Entry<PageKey, UserWebPage> e : pendingPages.entrySet()) {
+                writePage(e.getKey(), e.getValue());
+            }
+            for (Map.Entry<Integer, String> e : pendingPreviews.entrySet()) {
+                writePreview(e.getKey(), e.getValue());
+            }
+        }
+    }
+
+    // 7. 서버 종료 시 남은 것 전부 내려쓰기
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+        System.out.println("✅ [SaveBuffer] 종료 전 flush 완료 (남은 페이지: " + pendingPages.size() + ")");
+    }
+
+    public int pendingCount() {
+        return pendingPages.size() + pendingPreviews.size();
+    }
+
+    // DB에 쓴 "그 버전"일 때만 버퍼에서 제거 → 쓰는 도중 들어온 새 저장은 다음 flush로 넘어감
+    // 자기 트랜잭션에서 커밋까지 끝낸 뒤에 제거 → 한 페이지 실패가 다른 페이지/호출자 트랜잭션을 rollback-only로 만들지 않음
+    private void writePage(PageKey key, UserWebPage page) {
+        try {
+            writeTx.executeWithoutResult(status -> {
+                pageBlobStore.updatePage(key.webId(), key.pageName(), page);
+                pageCache.invalidatePage(key.webId(), key.pageName()); // 커밋 후 캐시에 남은 flush 이전 본문 제거
+            });
+            writeEpoch.incrementAndGet(); // 버퍼에서 빼기 전에 → 이 뒤로 버퍼가 비어 보이면 epoch도 바뀌어 있음
+            pendingPages.remove(key, page);
+        } catch (Exception ex) {
+            // 실패한 건 버퍼에 남겨두고 다음 주기에 재시도
+            System.out.println("❌ [SaveBuffer] 페이지 flush 실패 webId=" + key.webId() + ", page=" + key.pageName() + " : " + ex.getMessage());
+        }
+    }
+
+    private void writePreview(Integer webId, String previewHtml) {
+        try {
+            writeTx.executeWithoutResult(status -> projectDao.updateProjectPreview(webId, previewHtml));
+            pageCache.putPreview(webId, ProjectPreview.fromHtml(previewHtml)); // 썸네일 응답(원문 + gzip) 새로 만들기
+            searchIndexService.indexPreview(webId, previewHtml); // 미리보기 텍스트를 검색 본문으로
+            pendingPreviews.remove(webId, previewHtml);
+        } catch (Exception ex) {
+            System.out.println("❌ [SaveBuffer] 미리보기 flush 실패 webId=" + webId + " : " + ex.getMessage());
+        }
+    }
+}
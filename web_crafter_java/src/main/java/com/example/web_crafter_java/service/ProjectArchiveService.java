@@ -0,0 +1,295 @@
+package com.example.web_crafter_java.service;
+
+import com.example.web_crafter_java.config.ArchiveProperties;
+import com.example.web_crafter_java.dao.ProjectDao;
+import com.example.web_crafter_java.dto.UserWeb;
+import com.example.web_crafter_java.dto.UserWebPage;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+
+import lombok.RequiredArgsConstructor;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * ✅ 프로젝트 내보내기/가져오기 (zip 한 개)
+ * - project.json: 형식/버전/제목, pages/0001.json ...: 페이지 하나씩, preview.html: 탐색 썸네일 (있으면)
+ * - 내보내기: 페이지 행을 커서(ResultHandler)로 받는 즉시 zip 엔트리로 써서 응답 스트림으로 바로 내보냄
+ * - 가져오기: zip을 엔트리 단위로 읽어 검증하며 임시 파일로 받은 뒤, 짧은 트랜잭션에서 importBatchSize개씩 묶음 INSERT
+ *   → 페이지 수와 상관없이 메모리 일정, 업로드 중에는 DB 커넥션을 잡지 않음
+ * - 가져온 프로젝트는 요청한 사용자가 방장인 새 프로젝트 (기존 프로젝트를 덮어쓰지 않음)
+ */
+@Service
+@RequiredArgsConstructor
+public class ProjectArchiveService {
+
+    public static final String FORMAT = "webcrafter-project";
+    private static final int VERSION = 1;
+
+    private static final String MANIFEST_ENTRY = "project.json";
+    private static final String PREVIEW_ENTRY = "preview.html";
+    private static final String PAGE_PREFIX = "pages/";
+
+    private final ProjectDao projectDao;
+    private final PageSaveBuffer pageSaveBuffer;
+    private final PageBlobStore pageBlobStore;
+    private final SearchIndexService searchIndexService;
+    private final ExploreResponseCache exploreResponseCache;
+    private final CommonService commonService;
+    private final ObjectMapper objectMapper;
+    private final ArchiveProperties props;
+    private final TransactionTemplate transactionTemplate;
+
+    // =========================================================
+    // 1. 내보내기
+    // =========================================================
+    public void writeArchive(Integer webId, String title, OutputStream out) throws IOException {
+        ZipOutputStream zip = new ZipOutputStream(out, StandardCharsets.UTF_8);
+
+        try (JsonGenerator gen = entryGenerator(zip, MANIFEST_ENTRY)) {
+            gen.writeStartObject();
+            gen.writeStringField("format", FORMAT);
+            gen.writeNumberField("version", VERSION);
+            gen.writeStringField("title", title);
+            gen.writeEndObject();
+        }
+        zip.closeEntry();
+
+        int[] seq = {0};
+        try {
+            // 행을 받는 즉시 엔트리로 씀 (프로젝트 전체를 메모리에 모으지 않음)
+            projectDao.streamPagesByWebId(webId, ProjectService.BUNDLE_FIELDS, ctx -> {
+                UserWebPage row = ctx.getResultObject();
+                // 아직 flush 안 된 저장본이 있으면 그걸로 교체 (stale 방지)
+                UserWebPage pending = pageSaveBuffer.getPendingPage(webId, row.getPageName());
+                UserWebPage page = pending != null ? pending : row;
+                try {
+                    try (JsonGenerator gen = entryGenerator(zip, String.format("%s%04d.json", PAGE_PREFIX, ++seq[0]))) {
+                        gen.writeStartObject();
+                        gen.writeStringField("pageName", row.getPageName());
+                        gen.writeStringField("layoutData", page.getLayoutData());
+                        gen.writeStringField("styleData", page.getStyleData());
+                        gen.writeStringField("logicData", page.getLogicData());
+                        gen.writeEndObject();
+                    }
+                    zip.closeEntry();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        String preview = pageSaveBuffer.getPendingPreview(webId);
+        if (preview == null) preview = projectDao.getPreviewHtml(webId);
+        if (preview != null && !preview.isBlank()) {
+            zip.putNextEntry(new ZipEntry(PREVIEW_ENTRY));
+            zip.write(preview.getBytes(StandardCharsets.UTF_8));
+            zip.closeEntry();
+        }
+
+        zip.finish();
+    }
+
+    // =========================================================
+    // 2. 가져오기 (새 프로젝트 id 반환, 형식이 틀리면 IllegalArgumentException → 아무 것도 안 만듦)
+    //    업로드를 읽는 동안은 트랜잭션/커넥션을 잡지 않음: 먼저 임시 파일로 받아 검증을 끝내고,
+    //    그 다음 짧은 트랜잭션 하나로 INSERT (느린 업로드가 DB 커넥션과 잠금을 오래 붙잡지 않게)
+    // =========================================================
+    public Integer importArchive(Integer userId, InputStream in) throws IOException {
+        Path spool = Files.createTempFile("webcrafter-import-", ".json");
+        try {
+            SpooledArchive archive = spool(in, spool);
+            return transactionTemplate.execute(status -> insertArchive(userId, archive));
+        } finally {
+            Files.deleteIfExists(spool);
+        }
+    }
+
+    // 검증이 끝난 가져오기 내용 (페이지는 spool 파일에 JSON 값 연속으로)
+    private record SpooledArchive(String title, String preview, Path pages) {}
+
+    // 2-1. zip을 엔트리 단위로 읽으면서 검증 + 페이지는 임시 파일로 (메모리 일정)
+    private SpooledArchive spool(InputStream in, Path spool) throws IOException {
+        ZipInputStream zip = new ZipInputStream(in, StandardCharsets.UTF_8);
+        ByteBudget total = new ByteBudget(props.getMaxTotalBytes()); // 압축 해제 후 전체 크기 (압축 폭탄 방지)
+
+        String title = null;
+        String preview = null;
+        Set<String> pageNames = new HashSet<>();
+
+        try (OutputStream out = Files.newOutputStream(spool);
+             SequenceWriter pages = objectMapper.writer().writeValues(out)) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                String name = entry.getName();
+                InputStream body = new LimitedInputStream(zip, props.getMaxEntryBytes(), total);
+
+                if (name.equals(MANIFEST_ENTRY)) {
+                    if (title != null) throw new IllegalArgumentException("INVALID_ARCHIVE");
+                    title = readTitle(objectMapper.readTree(body));
+                } else if (name.startsWith(PAGE_PREFIX) && name.endsWith(".json")) {
+                    if (title == null) throw new IllegalArgumentException("INVALID_ARCHIVE"); // project.json이 먼저 와야 함
+                    UserWebPage page = readPage(body);
+                    if (!pageNames.add(page.getPageName())) throw new IllegalArgumentException("DUPLICATE_PAGE");
+                    if (pageNames.size() > props.getMaxPages()) throw new IllegalArgumentException("TOO_MANY_PAGES");
+                    pages.write(page);
+                } else if (name.equals(PREVIEW_ENTRY)) {
+                    preview = new String(body.readAllBytes(), StandardCharsets.UTF_8);
+                } else {
+                    body.transferTo(OutputStream.nullOutputStream()); // 모르는 엔트리도 전체 크기에 포함
+                }
+                zip.closeEntry();
+            }
+        } catch (ZipException | JsonProcessingException e) {
+            throw new IllegalArgumentException("INVALID_ARCHIVE");
+        }
+
+        if (title == null || pageNames.isEmpty()) throw new IllegalArgumentException("INVALID_ARCHIVE");
+        return new SpooledArchive(title, preview, spool);
+    }
+
+    // 2-2. 검증된 내용을 한 트랜잭션으로 INSERT (importBatchSize개씩 묶음, 중간에 실패하면 전부 롤백)
+    private Integer insertArchive(Integer userId, SpooledArchive archive) {
+        UserWeb web = new UserWeb();
+        web.setUserId(userId);
+        web.setTitle(archive.title());
+        projectDao.insertUserWeb(web);
+
+        List<UserWebPage> batch = new ArrayList<>(props.getImportBatchSize());
+        try (MappingIterator<UserWebPage> pages = objectMapper.readerFor(UserWebPage.class).readValues(archive.pages().toFile())) {
+            while (pages.hasNextValue()) {
+                UserWebPage page = pages.nextValue();
+                page.setWebId(web.getId());
+                batch.add(page);
+                if (batch.size() >= props.getImportBatchSize()) {
+                    pageBlobStore.insertPages(web.getId(), batch);
+                    batch = new ArrayList<>(props.getImportBatchSize());
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // 롤백
+        }
+        if (!batch.isEmpty()) pageBlobStore.insertPages(web.getId(), batch);
+
+        projectDao.insertProjectMember(web.getId(), userId, "OWNER");
+        searchIndexService.indexProject(web.getId());
+        String preview = archive.preview();
+        if (preview != null && !preview.isBlank()) {
+            projectDao.updateProjectPreview(web.getId(), preview);
+            searchIndexService.indexPreview(web.getId(), preview);
+        }
+        exploreResponseCache.invalidateAll(); // 커밋 후 실행
+        commonService.onProjectCreated();
+
+        return web.getId();
+    }
+
+    private String readTitle(JsonNode manifest) {
+        if (!FORMAT.equals(manifest.path("format").asText())) throw new IllegalArgumentException("INVALID_ARCHIVE");
+        if (manifest.path("version").asInt(0) > VERSION) throw new IllegalArgumentException("UNSUPPORTED_VERSION");
+
+        String title = manifest.path("title").asText("").trim();
+        if (title.isEmpty()) title = "Imported Project";
+        if (title.length() > 100) title = title.substring(0, 100); // userWeb.title VARCHAR(100)
+        return title;
+    }
+
+    private UserWebPage readPage(InputStream body) throws IOException {
+        JsonNode node = objectMapper.readTree(body);
+        String pageName = node.path("pageName").asText("").trim();
+        if (pageName.isEmpty() || pageName.length() > 100) throw new IllegalArgumentException("INVALID_PAGE_NAME");
+
+        UserWebPage page = new UserWebPage();
+        page.setPageName(pageName);
+        page.setLayoutData(textOrNull(node, "layoutData"));
+        page.setStyleData(textOrNull(node, "styleData"));
+        page.setLogicData(textOrNull(node, "logicData"));
+        return page;
+    }
+
+    private static String textOrNull(JsonNode node, String field) {
+        JsonNode v = node.get(field);
+        return v == null || v.isNull() ? null : v.asText();
+    }
+
+    // 엔트리마다 JSON을 따로 쓰고, 닫아도 zip 스트림은 열어둠
+    private JsonGenerator entryGenerator(ZipOutputStream zip, String name) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        return objectMapper.getFactory().createGenerator(zip).disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    // 가져오기 한 번에 압축 해제할 수 있는 전체 바이트 (엔트리들이 나눠 씀)
+    private static final class ByteBudget {
+        private long remaining;
+
+        ByteBudget(long maxBytes) {
+            this.remaining = maxBytes;
+        }
+
+        void consume(long n) {
+            remaining -= n;
+            if (remaining < 0) throw new IllegalArgumentException("ARCHIVE_TOO_LARGE");
+        }
+    }
+
+    // 엔트리 하나를 maxBytes까지만 (+ 전체 예산 안에서) 읽게 하는 래퍼 (압축 폭탄 방지), close()는 zip을 닫지 않음
+    private static final class LimitedInputStream extends FilterInputStream {
+        private long remaining;
+        private final ByteBudget total;
+
+        LimitedInputStream(InputStream in, long maxBytes, ByteBudget total) {
+            super(in);
+            this.remaining = maxBytes;
+            this.total = total;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) consume(1);
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buf, int off, int len) throws IOException {
+            int n = super.read(buf, off, len);
+            if (n > 0) consume(n);
+            return n;
+        }
+
+        private void consume(long n) {
+            remaining -= n;
+            if (remaining < 0) throw new IllegalArgumentException("ENTRY_TOO_LARGE");
+            total.consume(n);
+        }
+
+        @Override
+        public void close() {
+            // zip 스트림은 다음 엔트리를 위해 열어둠
+        }
+    }
+}
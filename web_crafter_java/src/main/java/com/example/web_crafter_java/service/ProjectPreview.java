@@ -0,0 +1,63 @@
+package com.example.web_crafter_java.service;
+
+import com.example.web_crafter_java.dao.CompressedTextTypeHandler;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * ✅ 탐색 썸네일(preview_html) 응답용으로 미리 만들어둔 본문
+ * - identity: 원문 UTF-8, gzip: 압축본 (요청마다 압축하지 않음)
+ * - DB에 이미 gzip으로 저장된 값은 그 바이트를 그대로 gzip 본문으로 씀
+ */
+public record ProjectPreview(String eTag, byte[] identity, byte[] gzip) {
+
+    // 저장된 바이트(압축 여부 상관없음)에서
+    public static ProjectPreview fromStored(byte[] stored) {
+        if (stored == null) return null;
+        if (CompressedTextTypeHandler.isCompressed(stored)) {
+            byte[] identity = CompressedTextTypeHandler.decode(stored).getBytes(StandardCharsets.UTF_8);
+            return new ProjectPreview(eTagOf(identity), identity, stored);
+        }
+        return of(stored);
+    }
+
+    // 새로 저장된 HTML에서
+    public static ProjectPreview fromHtml(String html) {
+        if (html == null) return null;
+        return of(html.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public long weight() {
+        return 64L + identity.length + gzip.length;
+    }
+
+    private static ProjectPreview of(byte[] identity) {
+        return new ProjectPreview(eTagOf(identity), identity, gzip(identity));
+    }
+
+    private static byte[] gzip(byte[] raw) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, raw.length / 4));
+        try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+            gz.write(raw);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static String eTagOf(byte[] identity) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(identity);
+            return "\"pv-" + HexFormat.of().formatHex(digest, 0, 12) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
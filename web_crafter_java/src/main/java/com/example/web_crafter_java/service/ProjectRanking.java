@@ -0,0 +1,109 @@
+package com.example.web_crafter_java.service;
+
+import com.example.web_crafter_java.config.RankingProperties;
+import com.example.web_crafter_java.dao.ProjectDao;
+import com.example.web_crafter_java.dao.RankingRow;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * ✅ 탐색 페이지 trending / popular 순위 (요청마다 ORDER BY hit 정렬하지 않도록 미리 계산)
+ * - trending: 조회/리메이크가 들어올 때마다 시간 감쇠 점수를 더함
+ *   "지금 더하는 점수"를 2^(경과시간/반감기)배로 키워서 넣으면, 기존 점수를 매번 깎지 않아도 순서가 같아짐
+ *   (배수가 너무 커지면 전체를 한 번 나눠서 기준 시각을 옮김)
+ * - popular: 누적 조회수 + 리메이크 수 × remixWeight. 주기적으로 DB에서 상위 K개를 다시 읽고, 그 사이엔 증분만 반영
+ * - 조회는 순위표 앞에서 필요한 개수만 읽음 (O(k))
+ */
+@Component
+@RequiredArgsConstructor
+public class ProjectRanking {
+
+    private static final double REBASE_AT = Math.pow(2, 60);
+
+    private final ProjectDao projectDao;
+    private final RankingProperties props;
+
+    private TopKRanking trending;
+    private TopKRanking popular;
+    private long baseMillis = System.currentTimeMillis(); // trending 점수 기준 시각
+
+    @PostConstruct
+    void init() {
+        trending = new TopKRanking(props.getMaxTracked());
+        popular = new TopKRanking(props.getMaxTracked());
+    }
+
+    // 1. 조회수 flush 결과 반영 (HitCounter)
+    public synchronized void recordHits(Map<Integer, Long> hits) {
+        double weight = decayWeight();
+        hits.forEach((webId, n) -> {
+            trending.add(webId, n * weight);
+            popular.addIfPresent(webId, n);
+        });
+    }
+
+    // 2. 리메이크 반영 (원본 프로젝트 점수)
+    public synchronized void recordRemix(Integer webId) {
+        trending.add(webId, props.getRemixWeight() * decayWeight());
+        popular.addIfPresent(webId, props.getRemixWeight());
+    }
+
+    public void remove(Integer webId) {
+        trending.remove(webId);
+        popular.remove(webId);
+    }
+
+    // 3. 순위 조회 (trending 기록이 모자라면 popular로 채움: 서버 재시작 직후 등)
+    public List<Integer> topTrending(int offset, int limit) {
+        Set<Integer> ids = new LinkedHashSet<>(trending.top(0, offset + limit));
+        if (ids.size() < offset + limit) {
+            for (Integer id : popular.top(0, offset + limit)) {
+                if (ids.size() >= offset + limit) break;
+                ids.add(id);
+            }
+        }
+        List<Integer> all = new ArrayList<>(ids);
+        return offset >= all.size() ? List.of() : all.subList(offset, all.size());
+    }
+
+    public List<Integer> topPopular(int offset, int limit) {
+        return popular.top(offset, limit);
+    }
+
+    // 4. 백그라운드: popular 를 DB 기준으로 다시 맞추고, trending 기준 시각 정리
+    @Scheduled(fixedDelayString = "${webcrafter.ranking.reload-interval-ms:300000}")
+    public void reload() {
+        try {
+            List<RankingRow> rows = projectDao.selectPopularScores(props.getMaxTracked(), props.getRemixWeight());
+            Map<Integer, Double> scores = new HashMap<>();
+            for (RankingRow r : rows) scores.put(r.getId(), r.getScore());
+            popular.replaceAll(scores);
+        } catch (Exception ex) {
+            System.out.println("❌ [Ranking] popular 순위 재계산 실패 : " + ex.getMessage());
+        }
+
+        synchronized (this) {
+            double weight = decayWeight();
+            if (weight > REBASE_AT) {
+                trending.scaleAll(1 / weight);
+                baseMillis = System.currentTimeMillis();
+            }
+        }
+    }
+
+    private double decayWeight() {
+        double halfLifeMs = props.getHalfLifeHours() * 3600_000;
+        return Math.pow(2, (System.currentTimeMillis() - baseMillis) / halfLifeMs);
+    }
+}
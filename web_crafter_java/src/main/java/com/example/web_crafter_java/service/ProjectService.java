@@ -4,21 +4,70 @@ import com.example.web_crafter_java.dao.ProjectDao;
 import com.example.web_crafter_java.dto.UserWeb;
 import com.example.web_crafter_java.dto.UserWebPage;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.bind.annotation.PatchMapping;
-import org.springframework.web.bind.annotation.PathVariable;
 
+import com.example.web_crafter_java.dto.ExplorePageDto;
+import com.example.web_crafter_java.dto.PagePatchReq;
+import com.example.web_crafter_java.dto.PageRevisionInfo;
 import com.example.web_crafter_java.dto.ProjectExploreDto;
 @Service
 public class ProjectService {
     @Autowired
     private ProjectDao projectDao;
 
+    @Autowired
+    private PageSaveBuffer pageSaveBuffer;
+
+    @Autowired
+    private PageCache pageCache;
+
+    @Autowired
+    private PageBlobStore pageBlobStore;
+
+    @Autowired
+    private PageHistoryService pageHistoryService;
+
+    @Autowired
+    private HitCounter hitCounter;
+
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    @Autowired
+    private ProjectRanking projectRanking;
+
+    @Autowired
+    private ExploreResponseCache exploreResponseCache;
+
+    @Autowired
+    private CommonService commonService; // 플랫폼 통계 카운터
+
+    @Autowired
+    private BlocklyCompiler blocklyCompiler;
+
+    @Autowired
+    private SitePublisher sitePublisher;
+
+    @Autowired
+    private ObjectMapper objectMapper; // Spring이 관리하는 공용 mapper
+
+    @Autowired
+    private CollabEngine collabEngine; // 실시간 협업 문서 (전체 저장 = 체크포인트)
+
 @Transactional
 public Integer createProject(Integer userId) {
     // 1. userWeb 생성 (프로젝트 본체)
@@ -41,12 +90,17 @@ public Integer createProject(Integer userId) {
         page.setStyleData("{}");
         page.setLogicData("{}");
         
-        projectDao.insertUserWebPage(page);
+        pageBlobStore.insertPage(page); // 기본 XML/"{}"는 page_blob 한 행을 모든 프로젝트가 공유
     }
 
     // 3. userWeb_member 방장 등록
     projectDao.insertProjectMember(web.getId(), userId, "OWNER");
 
+    // 4. 탐색 검색 색인에 추가 + 탐색 목록 캐시 비우기
+    searchIndexService.indexProject(web.getId());
+    exploreResponseCache.invalidateAll();
+    commonService.onProjectCreated();
+
     return web.getId();
 }
 
@@ -55,13 +109,32 @@ public Integer createProject(Integer userId) {
         // 1. 해당 프로젝트의 소유주가 맞는지 확인하는 로직 (선택 사항이지만 보안상 추천)
         // 2. 이름 업데이트 수행
         projectDao.updateTitle(projectId, newName);
+        pageCache.invalidateProject(projectId); // 페이지 응답에 title이 포함되므로
+        searchIndexService.indexProject(projectId);
+        exploreResponseCache.invalidateAll();
     }
 
 // ProjectService.java 수정
 public UserWebPage getProjectPageData(Integer webId, String pageName) {
+
+    // 0. 아직 DB에 안 내려간 저장본이 있으면 그걸 우선 반환 (stale 방지)
+    UserWebPage pending = pageSaveBuffer.getPendingPage(webId, pageName);
+    if (pending != null) {
+        UserWebPage version = projectDao.getPageVersion(webId, pageName); // 행 id + 제목 (ETag에 같이 들어감)
+        UserWebPage copy = new UserWebPage();
+        copy.setId(version != null ? version.getId() : pending.getId());
+        copy.setWebId(webId);
+        copy.setPageName(pending.getPageName());
+        copy.setLayoutData(pending.getLayoutData());
+        copy.setStyleData(pending.getStyleData());
+        copy.setLogicData(pending.getLogicData());
+        copy.setRevision(pending.getRevision());
+        copy.setTitle(version != null ? version.getTitle() : projectDao.getProjectTitle(webId));
+        return copy;
+    }
     
-    // 1. DAO를 통해 JOIN된 데이터를 가져옵니다 (이미 DAO에 JOIN 쿼리가 있습니다)
-    UserWebPage page = projectDao.getPageData(webId, pageName);
+    // 1. DAO를 통해 JOIN된 데이터를 가져옵니다 (캐시에 있으면 JOIN 생략)
+    UserWebPage page = pageCache.getPage(webId, pageName, () -> projectDao.getPageData(webId, pageName));
 
     // 2. 만약 데이터가 없다면 빈 객체를 생성하되, 이름만은 DB에서 다시 확인합니다.
         if (page == null) {
@@ -70,11 +143,87 @@ public UserWebPage getProjectPageData(Integer webId, String pageName) {
     
     return page;
 }
+    // =========================================================
+    // 🔥 [ETag] 페이지 본문을 읽지 않고 버전 태그만 계산
+    // =========================================================
+    // 버퍼 → 캐시 → DB(id, revision, title만) 순으로 확인, 페이지가 없으면 null
+    public String getPageETag(Integer webId, String pageName) {
+        UserWebPage pending = pageSaveBuffer.getPendingPage(webId, pageName);
+        if (pending != null) {
+            // 버퍼는 기존 행에만 쌓이므로 (삭제 시 버림) 행 id/제목은 DB 값 + revision은 버퍼 값
+            UserWebPage version = projectDao.getPageVersion(webId, pageName);
+            if (version == null) return null;
+            return pageETag(version.getId(), pending.getRevision(), version.getTitle());
+        }
+
+        UserWebPage cached = pageCache.peekPage(webId, pageName);
+        if (cached != null) {
+            return pageETag(cached);
+        }
+
+        UserWebPage version = projectDao.getPageVersion(webId, pageName);
+        return version == null ? null : pageETag(version);
+    }
+
+    public String pageETag(UserWebPage page) {
+        return pageETag(page.getId(), page.getRevision(), page.getTitle());
+    }
+
+    // 응답 본문 = 페이지 행(id) + 내용(revision) + 프로젝트 제목 → 하나라도 바뀌면 태그가 바뀜
+    // (revision만 쓰면 페이지를 지우고 같은 이름으로 다시 만들었을 때 0부터 다시 세어 옛 태그와 겹침)
+    private String pageETag(Integer rowId, Integer revision, String title) {
+        int id = rowId == null ? 0 : rowId;
+        int rev = revision == null ? 0 : revision;
+        int titleHash = title == null ? 0 : title.hashCode();
+        return "\"" + Integer.toHexString(id) + "-" + rev + "-" + Integer.toHexString(titleHash) + "\"";
+    }
+
+    // =========================================================
+    // 🔥 [번들 조회] 프로젝트 전체 페이지를 한 번에 JSON으로 스트리밍
+    // =========================================================
+    public static final Set<String> BUNDLE_FIELDS = Set.of("layoutData", "styleData", "logicData");
+
+    // { "webId": 1, "title": "...", "pages": [ { id, webId, pageName, revision, layoutData?, styleData?, logicData? } ] }
+    public void writeProjectBundle(Integer webId, String title, Set<String> fields, OutputStream out) throws IOException {
+        try (JsonGenerator gen = objectMapper.getFactory().createGenerator(out)) {
+            gen.writeStartObject();
+            gen.writeNumberField("webId", webId);
+            gen.writeStringField("title", title);
+            gen.writeArrayFieldStart("pages");
+
+            // 행을 받는 즉시 써서 페이지 전체를 메모리에 모으지 않음
+            projectDao.streamPagesByWebId(webId, fields, ctx -> {
+                UserWebPage row = ctx.getResultObject();
+                // 아직 flush 안 된 저장본이 있으면 그걸로 교체 (stale 방지)
+                UserWebPage pending = pageSaveBuffer.getPendingPage(webId, row.getPageName());
+                UserWebPage page = pending != null ? pending : row;
+                try {
+                    gen.writeStartObject();
+                    gen.writeNumberField("id", row.getId());
+                    gen.writeNumberField("webId", webId);
+                    gen.writeStringField("pageName", row.getPageName());
+                    gen.writeNumberField("revision", page.getRevision() == null ? 0 : page.getRevision());
+                    if (fields.contains("layoutData")) gen.writeStringField("layoutData", page.getLayoutData());
+                    if (fields.contains("styleData")) gen.writeStringField("styleData", page.getStyleData());
+                    if (fields.contains("logicData")) gen.writeStringField("logicData", page.getLogicData());
+                    gen.writeEndObject();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+
+            gen.writeEndArray();
+            gen.writeEndObject();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
 // ProjectService.java
 
-@Transactional // DB 값을 수정하므로 트랜잭션 처리를 해주는 것이 좋습니다.
-public void updateHit(Integer webId) {
-    projectDao.increaseHit(webId);
+// 조회수는 HitCounter에 모았다가 몇 초마다 한 번에 반영 (viewer: 중복 조회 판별용, null이면 항상 셈)
+public void updateHit(Integer webId, String viewer) {
+    hitCounter.record(webId, viewer);
 }
 // 🔥 [신규] JSON 데이터 저장 메서드 추가
 @Transactional
@@ -85,24 +234,44 @@ public void updateProjectData(Integer webId, String oldPageName ,UserWebPage pag
         return;
     }
 
-    projectDao.updatePageData(webId, oldPageName, pageData);
+    // 바로 UPDATE 하지 않고 write-behind 버퍼에 적재 (주기적으로 한 번에 flush)
+    pageSaveBuffer.savePage(webId, oldPageName, pageData);
+    collabEngine.invalidatePage(webId, oldPageName);
 }
 
+@Transactional
 public void deleteProject(Integer projectId, Integer memberId) {
     // 1. (선택사항) 삭제 권한 체크 로직 [cite: 2026-01-16]
     // 예: 이 프로젝트의 소유자가 memberId와 일치하는지 확인하는 로직을 여기에 넣을 수 있습니다.
 
     // 2. DAO 호출하여 DB 삭제 실행 [cite: 2026-01-21]
+    pageSaveBuffer.discardProject(projectId); // 버퍼에 남은 저장본은 버림
+    collabEngine.discardProject(projectId);   // 협업 문서도 스냅샷 없이 버림
+    hitCounter.discardProject(projectId);     // 안 내려간 조회수도 버림
+    searchIndexService.removeProject(projectId);
+    projectRanking.remove(projectId);
+    exploreResponseCache.invalidateAll();
+    pageBlobStore.releaseProject(projectId);  // CASCADE로 페이지가 지워지기 전에 blob 참조 해제
+    Integer hits = projectDao.getProjectHit(projectId);
     projectDao.deleteProject(projectId);
+    if (hits != null) commonService.onProjectDeleted(hits); // 통계: 프로젝트 수/누적 조회수 차감
+    pageCache.invalidateProject(projectId);
+    sitePublisher.unpublish(projectId); // 배포된 정적 사이트도 내림
 }
 
 public void insertNewPage(com.example.web_crafter_java.dto.UserWebPage pageData) {
-    projectDao.insertNewPage(pageData); // DAO에 있는 INSERT 쿼리를 실행합니다.
+    pageBlobStore.insertPage(pageData); // 내용은 page_blob에 넣고 INSERT 쿼리를 실행합니다.
+    pageCache.invalidatePage(pageData.getWebId(), pageData.getPageName());
+    pageCache.invalidatePageList(pageData.getWebId());
 }
 
+    public String getProjectTitle(Integer webId) {
+        return projectDao.getProjectTitle(webId);
+    }
+
 // ✅ 페이지 목록 조회 서비스
     public java.util.List<UserWebPage> getPageList(Integer webId) {
-        return projectDao.selectPagesByWebId(webId);
+        return pageCache.getPageList(webId, () -> projectDao.selectPagesByWebId(webId));
     }
 
     public void createPage(Integer webId, UserWebPage pageData) {
@@ -166,30 +335,219 @@ public void inviteUser(Integer myId, Integer targetId, Integer webId) {
         // 1. 오프셋 계산
         int offset = page * size;
 
-        // 2. DAO 호출 (이제 DTO에 previewHtml이 담겨옵니다)
-        List<ProjectExploreDto> projects = projectDao.selectExploreProjects(keyword, size, offset);
+        // 2. DAO 호출 (목록은 메타데이터만, 썸네일은 /preview 에서 따로)
+        //    검색어는 FULLTEXT 색인으로 찾고 점수순 정렬 (한 글자 검색어는 기존 LIKE)
+        String ftQuery = SearchIndexService.toFullTextQuery(keyword);
+        List<ProjectExploreDto> projects = projectDao.selectExploreProjects(keyword, ftQuery, size, offset);
 
         // 3. Null 처리 (리스트가 비었을 때 안전하게 빈 리스트 반환)
         if (projects == null) {
             return Collections.emptyList();
         }
 
+        // 4. 아직 flush 안 된 조회수를 반영
+        applyPending(projects);
+
         return projects;
     }
 
+    // 커서 방식: cursor는 직전 응답의 nextCursor (빈 문자열이면 첫 페이지)
+    @Transactional(readOnly = true)
+    public ExplorePageDto getExploreProjectsAfter(String keyword, String cursor, int size) {
+        ExploreCursor after = ExploreCursor.decode(cursor);
+        String ftQuery = SearchIndexService.toFullTextQuery(keyword);
+        if (ftQuery != null && after != null && after.score() == null) {
+            throw new IllegalArgumentException("INVALID_CURSOR"); // 검색어 없이 받은 커서로 검색 결과를 이어볼 수 없음
+        }
+
+        // 한 개 더 읽어서 다음 페이지가 있는지 판단
+        List<ProjectExploreDto> rows = projectDao.selectExploreProjectsAfter(
+                keyword,
+                ftQuery,
+                after == null ? null : after.updateDate(),
+                after == null ? null : after.score(),
+                after == null ? null : after.id(),
+                size + 1);
+
+        boolean hasMore = rows.size() > size;
+        List<ProjectExploreDto> items = hasMore ? new ArrayList<>(rows.subList(0, size)) : rows;
+
+        // 커서는 DB에 있는 값 기준으로 (미반영 조회수 더하기 전에 계산)
+        String nextCursor = null;
+        if (hasMore) {
+            ProjectExploreDto last = items.get(items.size() - 1);
+            nextCursor = new ExploreCursor(last.getUpdateDate(), last.getId(), last.getScore()).encode();
+        }
+
+        applyPending(items);
+        return new ExplorePageDto(items, nextCursor);
+    }
+
+    // 탐색 목록 JSON (짧은 TTL 캐시 + 동시 요청 합치기)
+    // sort: recent / trending / popular, cursor가 있으면 커서 방식 응답
+    public byte[] getExploreJson(String sort, String keyword, int page, String cursor, int size) {
+        ExploreResponseCache.Key key = new ExploreResponseCache.Key(sort, keyword, cursor, page, size);
+        return exploreResponseCache.get(key, () -> {
+            Object body;
+            if (!"recent".equals(sort)) {
+                body = getRankedProjects(sort, page, size);
+            } else if (cursor != null) {
+                body = getExploreProjectsAfter(keyword, cursor, size);
+            } else {
+                body = getExploreProjects(keyword, page, size);
+            }
+            try {
+                return objectMapper.writeValueAsBytes(body);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    // trending / popular: 미리 계산된 순위표에서 이번 페이지 id만 꺼내고 메타데이터는 PK로 조회
+    @Transactional(readOnly = true)
+    public List<ProjectExploreDto> getRankedProjects(String sort, int page, int size) {
+        if (page < 0) throw new IllegalArgumentException("INVALID_PAGE");
+        if (size < 1) throw new IllegalArgumentException("INVALID_SIZE");
+        long offset = (long) page * size;
+        if (offset + size > Integer.MAX_VALUE) return Collections.emptyList(); // 순위표보다 한참 뒤 (int 넘침 방지)
+
+        List<Integer> ids = "popular".equals(sort)
+                ? projectRanking.topPopular((int) offset, size)
+                : projectRanking.topTrending((int) offset, size);
+        if (ids.isEmpty()) return Collections.emptyList();
+
+        Map<Long, ProjectExploreDto> byId = new HashMap<>();
+        for (ProjectExploreDto p : projectDao.selectExploreProjectsByIds(ids)) {
+            byId.put(p.getId(), p);
+        }
+
+        List<ProjectExploreDto> projects = new ArrayList<>(ids.size());
+        for (Integer id : ids) {
+            ProjectExploreDto p = byId.get(id.longValue());
+            if (p != null) projects.add(p); // 그 사이 삭제된 프로젝트는 건너뜀
+        }
+        applyPending(projects);
+        return projects;
+    }
+
+    private void applyPending(List<ProjectExploreDto> projects) {
+        for (ProjectExploreDto p : projects) {
+            p.setViews(p.getViews() + (int) hitCounter.pendingHits(p.getId().intValue()));
+        }
+    }
+
+    // 탐색 썸네일: 아직 flush 안 된 미리보기가 있으면 그걸, 아니면 캐시(원문 + gzip 미리 만들어둔 것)
+    public ProjectPreview getProjectPreview(Integer webId) {
+        String pending = pageSaveBuffer.getPendingPreview(webId);
+        if (pending != null) return ProjectPreview.fromHtml(pending);
+        return pageCache.getPreview(webId, () -> ProjectPreview.fromStored(projectDao.selectPreviewHtmlRaw(webId)));
+    }
+
+    // =========================================================
+    // 🔥 [서버 컴파일] 저장된 블록 데이터 → 정적 HTML 문서 (클라이언트가 만든 HTML을 쓰지 않음)
+    // =========================================================
+    public String getCompiledPage(Integer webId, String pageName) {
+        UserWebPage page = getProjectPageData(webId, pageName);
+        return blocklyCompiler.compile(page).document(page.getTitle());
+    }
+
+    // 컴파일 결과는 페이지 내용 + 제목으로 정해지므로 페이지 ETag에 접두어만 붙여서 씀 (본문 안 읽고 304)
+    public String getCompiledETag(Integer webId, String pageName) {
+        String etag = getPageETag(webId, pageName);
+        return etag == null ? null : "\"c" + etag.substring(1);
+    }
+
+    // =========================================================
+    // 🔥 [배포] 현재 페이지들을 정적 사이트(/site/{webId}/)로 굳히기 / 내리기
+    // =========================================================
+    public boolean isProjectMember(Integer webId, Integer memberId) {
+        return projectDao.isMember(webId, memberId) > 0;
+    }
+
+    public int publishProject(Integer webId) throws IOException {
+        return sitePublisher.publish(webId);
+    }
+
+    public void unpublishProject(Integer webId) {
+        sitePublisher.unpublish(webId);
+    }
+
+    public int getPublishedVersion(Integer webId) {
+        return sitePublisher.currentVersion(webId);
+    }
+
     // =========================================================
     // 🔥 [저장 로직] 페이지 데이터 + 미리보기 HTML 동시 저장
     // =========================================================
     @Transactional
-    public void updateProjectData(Integer webId, String oldPageName, UserWebPage pageData, String previewHtml) {
+    public Integer updateProjectData(Integer webId, String oldPageName, UserWebPage pageData, String previewHtml) {
         
-        // 1. 기존: 페이지 데이터(JSON 등) 저장
-        projectDao.updatePageData(webId, oldPageName, pageData);
+        // 1. 기존: 페이지 데이터(JSON 등) 저장 → write-behind 버퍼 경유
+        Integer revision = pageSaveBuffer.savePage(webId, oldPageName, pageData);
+        collabEngine.invalidatePage(webId, oldPageName); // 전체 저장본이 새 기준 → 협업 문서는 다음 op 때 다시 읽음
 
         // 2. 추가: 미리보기 HTML이 있으면 프로젝트 썸네일 업데이트
         if (previewHtml != null && !previewHtml.trim().isEmpty()) {
-            projectDao.updateProjectPreview(webId, previewHtml);
+            pageSaveBuffer.savePreview(webId, previewHtml);
         }
+
+        // 3. 새 revision 반환 (직접쓰기 경로면 DB에서 확인) → 다음 patch 저장의 base
+        return revision != null ? revision : projectDao.getPageRevision(webId, pageData.getPageName());
+    }
+
+    // =========================================================
+    // 🔥 [patch 저장] 바뀐 부분만 받아서 base revision 위에 적용
+    // =========================================================
+    private static final Set<String> PATCHABLE_FIELDS = Set.of("layoutData", "styleData", "logicData");
+
+    public int patchProjectData(Integer webId, String pageName, PagePatchReq req) {
+        if (req.getBaseRevision() == null) throw new IllegalArgumentException("BASE_REVISION_REQUIRED");
+        if (req.getPatches() == null || req.getPatches().isEmpty()) throw new IllegalArgumentException("PATCHES_REQUIRED");
+        for (String field : req.getPatches().keySet()) {
+            if (!PATCHABLE_FIELDS.contains(field)) throw new IllegalArgumentException("FIELD_NOT_ALLOWED");
+        }
+
+        // 1. 버퍼(또는 DB)의 최신본에 patch 적용 → revision 검사는 버퍼 안에서 원자적으로
+        int revision = pageSaveBuffer.patchPage(webId, pageName, req.getBaseRevision(), cur -> {
+            UserWebPage next = new UserWebPage();
+            next.setId(cur.getId());
+            next.setWebId(webId);
+            next.setPageName(pageName);
+            next.setLayoutData(TextPatch.apply(cur.getLayoutData(), req.getPatches().get("layoutData")));
+            next.setStyleData(TextPatch.apply(cur.getStyleData(), req.getPatches().get("styleData")));
+            next.setLogicData(TextPatch.apply(cur.getLogicData(), req.getPatches().get("logicData")));
+            return next;
+        });
+        collabEngine.invalidatePage(webId, pageName);
+
+        // 2. 미리보기 HTML은 기존 전체 저장과 동일하게 처리
+        String previewHtml = req.getPreviewHtml();
+        if (previewHtml != null && !previewHtml.trim().isEmpty()) {
+            pageSaveBuffer.savePreview(webId, previewHtml);
+        }
+
+        return revision;
+    }
+
+    // =========================================================
+    // 🔥 [히스토리] 페이지 저장 버전 목록 / 특정 버전 조회 / 되돌리기
+    // =========================================================
+    public List<PageRevisionInfo> getPageRevisions(Integer webId, String pageName) {
+        return pageHistoryService.listRevisions(webId, pageName);
+    }
+
+    public UserWebPage getPageRevision(Integer webId, String pageName, int revision) {
+        return pageHistoryService.getRevision(webId, pageName, revision);
+    }
+
+    // 되돌리기 = 그 버전 내용을 새 저장으로 올림 (히스토리는 지우지 않음) → 새 revision 반환
+    public Integer restorePageRevision(Integer webId, String pageName, int revision) {
+        UserWebPage old = pageHistoryService.getRevision(webId, pageName, revision);
+        if (old == null) throw new IllegalArgumentException("존재하지 않는 버전입니다.");
+
+        old.setRevision(null);
+        return updateProjectData(webId, pageName, old, null);
     }
 
     // 1. 내 프로젝트 전체 목록 조회 (대시보드용)
@@ -222,55 +580,46 @@ public void inviteUser(Integer myId, Integer targetId, Integer webId) {
 
     @Transactional
     public Integer remakeProject(Integer originalWebId, Integer myId) {
-        // 1. 원본 프로젝트 정보 조회 (제목 등)
-        // (간단하게 구현하기 위해 제목만 가져오는 쿼리를 씁니다)
-        String originalTitle = projectDao.getProjectTitle(originalWebId);
-        if (originalTitle == null) originalTitle = "Remix Project";
+        // 0. 버퍼에 남은 원본 저장본을 먼저 DB에 내려써야 최신 상태로 복사됨
+        pageSaveBuffer.flushProject(originalWebId);
 
-        // 2. 새 프로젝트 껍데기 생성 (내 소유)
+        // 1. 새 프로젝트 생성 (내 소유) - 제목("Remix of ...")과 썸네일은 DB 안에서 바로 복사
         UserWeb newWeb = new UserWeb();
         newWeb.setUserId(myId);
-        newWeb.setTitle("Remix of " + originalTitle); // 제목 예: Remix of MyGame
-        projectDao.insertUserWeb(newWeb); 
-        
+        if (projectDao.insertRemixUserWeb(newWeb, originalWebId) == 0) {
+            // 원본이 없으면 예전처럼 빈 리믹스 프로젝트
+            newWeb.setTitle("Remix Project");
+            projectDao.insertUserWeb(newWeb);
+        } else {
+            // 원본의 리메이크 수 +1 (trending/popular 점수)
+            projectDao.increaseRemixCount(originalWebId);
+            projectRanking.recordRemix(originalWebId);
+        }
+
         Integer newWebId = newWeb.getId(); // 생성된 ID
 
-        // 3. 권한 설정 (내가 방장)
+        // 2. 권한 설정 (내가 방장)
         projectDao.insertProjectMember(newWebId, myId, "OWNER");
+        searchIndexService.indexProject(newWebId);
+        exploreResponseCache.invalidateAll();
+        commonService.onProjectCreated();
 
-        // 4. 🔥 원본 페이지들 전부 조회
-        List<UserWebPage> originalPages = projectDao.selectPagesByWebId(originalWebId);
-
-        // 5. 페이지 데이터 복사 (Deep Copy)
-        for (UserWebPage origPage : originalPages) {
-            // 원본의 상세 데이터(블록, CSS, JS 등)까지 꽉 채워서 가져옴
-            UserWebPage fullData = projectDao.getPageData(originalWebId, origPage.getPageName());
-            
-            if (fullData != null) {
-                UserWebPage newPage = new UserWebPage();
-                newPage.setWebId(newWebId); // 새 프로젝트 ID 연결
-                newPage.setPageName(fullData.getPageName());
-                newPage.setLayoutData(fullData.getLayoutData());
-                newPage.setStyleData(fullData.getStyleData());
-                newPage.setLogicData(fullData.getLogicData());
-                
-                // 새 페이지로 저장 (INSERT)
-                projectDao.insertUserWebPage(newPage);
-            }
-        }
-        
-        // 6. (선택) 원본의 썸네일(previewHtml)도 복사하고 싶다면 여기서 처리
-        String origPreview = projectDao.getPreviewHtml(originalWebId);
-        if(origPreview != null) {
-            projectDao.updateProjectPreview(newWebId, origPreview);
-        }
+        // 3. 🔥 페이지 전체 복사: INSERT ... SELECT 한 문장 (페이지 수와 상관없이 쿼리 수 고정)
+        //    내용은 공유, refCount만 증가 / 실패하면 트랜잭션이 이미 rollback-only라 리메이크 전체 실패
+        pageBlobStore.copyProjectPages(originalWebId, newWebId);
 
         return newWebId; // 새 프로젝트 ID 반환
     }
 
+    @Transactional
     public void deletePage(Integer webId, String pageName) {
     // 필요한 경우 권한 체크 로직을 여기에 추가할 수 있습니다.
+    pageSaveBuffer.discardPage(webId, pageName);
+    collabEngine.invalidatePage(webId, pageName);
+    pageBlobStore.releasePage(webId, pageName);
     projectDao.deletePage(webId, pageName);
+    pageCache.invalidatePage(webId, pageName);
+    pageCache.invalidatePageList(webId);
 }
 
 
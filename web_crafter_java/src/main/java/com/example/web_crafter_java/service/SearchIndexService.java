@@ -0,0 +1,75 @@
+package com.example.web_crafter_java.service;
+
+import com.example.web_crafter_java.dao.SearchIndexDao;
+
+import lombok.RequiredArgsConstructor;
+
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * ✅ 탐색 검색 색인 갱신 + 검색어 변환
+ * - 색인은 DB(userWeb_search)의 FULLTEXT ngram 인덱스이고, 여기서는 바뀐 프로젝트 행만 다시 씀
+ * - 검색어는 BOOLEAN MODE 구(phrase) 검색으로 바꿔서 기존 LIKE '%키워드%'와 비슷하게 동작
+ *   (ngram 토큰 크기 2보다 짧은 한 글자 검색어는 색인으로 못 찾으므로 기존 LIKE 검색 유지)
+ */
+@Service
+@RequiredArgsConstructor
+public class SearchIndexService {
+
+    private static final int NGRAM_SIZE = 2;        // MySQL ngram_token_size 기본값
+    private static final int MAX_BODY_CHARS = 4000; // 본문은 앞부분만 색인
+
+    private static final Pattern SCRIPT_OR_STYLE = Pattern.compile("(?is)<(script|style)[^>]*>.*?</\\1>");
+    private static final Pattern TAG = Pattern.compile("<[^>]*>");
+    private static final Pattern SPACES = Pattern.compile("\\s+");
+    // BOOLEAN MODE 연산자 문자 (구 검색 안에서도 따옴표는 구를 끊으므로 제거)
+    private static final Pattern BOOLEAN_OPERATORS = Pattern.compile("[\"+\\-<>()~*@]");
+
+    private final SearchIndexDao searchIndexDao;
+
+    @Value("${webcrafter.search.index-page-text:true}")
+    private boolean indexPageText;
+
+    // 1. 프로젝트 생성/이름 변경/리메이크 후
+    public void indexProject(Integer webId) {
+        searchIndexDao.upsertProject(webId);
+    }
+
+    // 2. 미리보기 HTML이 DB에 써질 때 → 태그 걷어낸 텍스트를 본문으로
+    public void indexPreview(Integer webId, String previewHtml) {
+        if (!indexPageText || previewHtml == null) return;
+        searchIndexDao.updateBody(webId, extractText(previewHtml));
+    }
+
+    // 3. 닉네임 변경
+    public void indexOwnerNickname(Integer userId, String nickname) {
+        searchIndexDao.updateOwnerNickname(userId, nickname);
+    }
+
+    // 4. 프로젝트 삭제 (FK CASCADE로도 지워지지만 명시적으로)
+    public void removeProject(Integer webId) {
+        searchIndexDao.deleteProject(webId);
+    }
+
+    // 검색어 → FULLTEXT 구 검색식 (색인으로 못 찾는 검색어면 null → LIKE 검색)
+    public static String toFullTextQuery(String keyword) {
+        if (keyword == null) return null;
+        String cleaned = SPACES.matcher(BOOLEAN_OPERATORS.matcher(keyword).replaceAll(" ")).replaceAll(" ").trim();
+        if (cleaned.codePointCount(0, cleaned.length()) < NGRAM_SIZE) return null;
+        for (String word : cleaned.split(" ")) {
+            if (word.codePointCount(0, word.length()) < NGRAM_SIZE) return null; // "a b" 같은 한 글자 단어 포함
+        }
+        return "\"" + cleaned + "\"";
+    }
+
+    static String extractText(String html) {
+        String text = SCRIPT_OR_STYLE.matcher(html).replaceAll(" ");
+        text = TAG.matcher(text).replaceAll(" ");
+        text = text.replace("&nbsp;", " ").replace("&lt;", "<").replace("&gt;", ">").replace("&amp;", "&");
+        text = SPACES.matcher(text).replaceAll(" ").trim();
+        return text.length() > MAX_BODY_CHARS ? text.substring(0, MAX_BODY_CHARS) : text;
+    }
+}
@@ -0,0 +1,253 @@
+package com.example.web_crafter_java.service;
+
+import com.example.web_crafter_java.config.PublishProperties;
+import com.example.web_crafter_java.dao.ProjectDao;
+import com.example.web_crafter_java.dto.UserWebPage;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.stereotype.Service;
+
+/**
+ * ✅ 프로젝트 배포: 페이지들을 서버 컴파일(BlocklyCompiler)해서 버전별 정적 파일로 굳혀두는 서비스
+ * - {rootDir}/{webId}/v{버전}/p{페이지이름 해시}.html (+ .html.gz 미리 압축), index.html = Home(없으면 첫 페이지)
+ * - 버전 디렉터리는 임시 디렉터리에 다 쓴 뒤 rename 한 번으로 공개 → 한 번 공개된 버전은 절대 바뀌지 않음
+ * - 현재 버전 번호는 {webId}/CURRENT 파일 + 메모리 맵 → 방문자 요청은 DB/MyBatis를 전혀 거치지 않음
+ * - 지금까지 쓴 가장 큰 버전 번호는 {webId}/LATEST 파일에 남겨서 배포를 내렸다 다시 해도 번호를 재사용하지 않음
+ *   (버전 주소는 오래 캐시되므로 같은 번호에 다른 내용이 오면 안 됨)
+ * - 오래된 버전은 keepVersions개만 남기고 정리
+ */
+@Service
+public class SitePublisher {
+
+    private static final String CURRENT_FILE = "CURRENT";
+    private static final String LATEST_FILE = "LATEST";
+    private static final String INDEX_NAME = "index";
+    private static final String HOME_PAGE = "Home";
+
+    // 배포된 파일 하나 (gzip이 원본보다 크면 gzip == null)
+    public record PublishedFile(int version, Path identity, Path gzip, String eTag) {}
+
+    private final ProjectDao projectDao;
+    private final PageSaveBuffer pageSaveBuffer;
+    private final BlocklyCompiler blocklyCompiler;
+    private final PublishProperties props;
+    private final Path root;
+
+    // webId → 현재 배포 버전, 없으면 CURRENT 파일에서 읽음 (배포 안 된 프로젝트는 담지 않음 → 아무 webId 요청으로 맵이 커지지 않게)
+    private final ConcurrentHashMap<Integer, Integer> currentVersions = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Integer, Object> publishLocks = new ConcurrentHashMap<>();
+
+    public SitePublisher(ProjectDao projectDao, PageSaveBuffer pageSaveBuffer,
+                         BlocklyCompiler blocklyCompiler, PublishProperties props) {
+        this.projectDao = projectDao;
+        this.pageSaveBuffer = pageSaveBuffer;
+        this.blocklyCompiler = blocklyCompiler;
+        this.props = props;
+        this.root = Paths.get(props.getRootDir()).toAbsolutePath().normalize();
+    }
+
+    // =========================================================
+    // 1. 배포 (새 버전 번호 반환)
+    // =========================================================
+    public int publish(Integer webId) throws IOException {
+        synchronized (publishLocks.computeIfAbsent(webId, k -> new Object())) {
+            String title = projectDao.getProjectTitle(webId);
+            if (title == null) throw new IllegalArgumentException("존재하지 않는 프로젝트입니다.");
+
+            Path projectDir = root.resolve(String.valueOf(webId));
+            Files.createDirectories(projectDir);
+            int version = Math.max(latestVersionOnDisk(projectDir), readMarker(projectDir.resolve(LATEST_FILE))) + 1;
+            Path tmp = projectDir.resolve(".tmp-v" + version);
+            deleteTree(tmp);
+            Files.createDirectories(tmp);
+
+            try {
+                String[] index = new String[1]; // index.html로 복사할 페이지 파일 이름
+                try {
+                    // 페이지 행을 하나씩 받아서 바로 컴파일 → 파일로 (프로젝트 전체를 메모리에 모으지 않음)
+                    projectDao.streamPagesByWebId(webId, ProjectService.BUNDLE_FIELDS, ctx -> {
+                        UserWebPage row = ctx.getResultObject();
+                        UserWebPage pending = pageSaveBuffer.getPendingPage(webId, row.getPageName());
+                        UserWebPage page = pending != null ? pending : row;
+
+                        String name = fileName(row.getPageName());
+                        String html = blocklyCompiler.compile(page).document(title);
+                        try {
+                            writeArtifact(tmp, name, html.getBytes(StandardCharsets.UTF_8));
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                        if (index[0] == null || HOME_PAGE.equals(row.getPageName())) index[0] = name;
+                    });
+                } catch (UncheckedIOException e) {
+                    throw e.getCause();
+                }
+                if (index[0] == null) throw new IllegalArgumentException("배포할 페이지가 없습니다.");
+
+                copyArtifact(tmp, index[0], INDEX_NAME);
+
+                // 다 쓴 디렉터리를 한 번에 공개 → CURRENT 교체
+                Files.move(tmp, projectDir.resolve("v" + version), StandardCopyOption.ATOMIC_MOVE);
+                writeMarker(projectDir, LATEST_FILE, version);
+                writeMarker(projectDir, CURRENT_FILE, version);
+                currentVersions.put(webId, version);
+            } catch (IOException | RuntimeException e) {
+                deleteTree(tmp);
+                throw e;
+            }
+
+            pruneOldVersions(projectDir, version);
+            System.out.println("✅ [Publish] webId=" + webId + " v" + version + " 배포 완료");
+            return version;
+        }
+    }
+
+    // 2. 배포 내리기 (프로젝트 삭제 시에도 호출) - LATEST만 남기고 버전/CURRENT 파일 삭제
+    public void unpublish(Integer webId) {
+        synchronized (publishLocks.computeIfAbsent(webId, k -> new Object())) {
+            currentVersions.remove(webId);
+            Path projectDir = root.resolve(String.valueOf(webId));
+            if (!Files.isDirectory(projectDir)) return;
+            try (Stream<Path> entries = Files.list(projectDir)) {
+                for (Path p : entries.filter(p -> !p.getFileName().toString().equals(LATEST_FILE)).toList()) {
+                    deleteTree(p);
+                }
+            } catch (IOException e) {
+                System.out.println("❌ [Publish] 배포 파일 삭제 실패 webId=" + webId + " : " + e.getMessage());
+            }
+        }
+    }
+
+    // 3. 현재 배포 버전 (0 = 배포 안 됨)
+    public int currentVersion(Integer webId) {
+        Integer cached = currentVersions.get(webId);
+        if (cached != null) return cached;
+
+        Path current = root.resolve(String.valueOf(webId)).resolve(CURRENT_FILE);
+        if (readMarker(current) <= 0) return 0; // 배포 안 됨은 캐시하지 않음
+
+        // 배포 내리기와 겹쳐서 지워진 버전을 다시 캐시하지 않도록 잠금 안에서 다시 읽고 담음
+        synchronized (publishLocks.computeIfAbsent(webId, k -> new Object())) {
+            int version = readMarker(current);
+            if (version > 0) currentVersions.putIfAbsent(webId, version);
+            return version;
+        }
+    }
+
+    // 4. 방문자 요청용 파일 찾기 (version == null 이면 현재 버전, pageName == null 이면 index)
+    public PublishedFile find(Integer webId, Integer version, String pageName) {
+        int v = version != null ? version : currentVersion(webId);
+        if (v <= 0) return null;
+
+        String name = pageName == null || pageName.isEmpty() ? INDEX_NAME : fileName(pageName);
+        Path dir = root.resolve(String.valueOf(webId)).resolve("v" + v);
+        Path identity = dir.resolve(name + ".html");
+        if (!Files.isRegularFile(identity)) return null;
+
+        Path gzip = dir.resolve(name + ".html.gz");
+        String eTag = "\"site-" + webId + "-v" + v + "-" + name + "\""; // 버전 디렉터리는 불변이라 이걸로 충분
+        return new PublishedFile(v, identity, Files.isRegularFile(gzip) ? gzip : null, eTag);
+    }
+
+    // =========================================================
+    // 파일 도우미
+    // =========================================================
+
+    // 페이지 이름 → 파일 이름 (이름 해시: 한글/특수문자/"..", 긴 이름 모두 안전, "index"와도 안 겹침)
+    private static String fileName(String pageName) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(pageName.getBytes(StandardCharsets.UTF_8));
+            return "p" + HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void writeArtifact(Path dir, String name, byte[] html) throws IOException {
+        Files.write(dir.resolve(name + ".html"), html);
+        byte[] gz = gzip(html);
+        if (gz.length < html.length) Files.write(dir.resolve(name + ".html.gz"), gz);
+    }
+
+    private static void copyArtifact(Path dir, String from, String to) throws IOException {
+        Files.copy(dir.resolve(from + ".html"), dir.resolve(to + ".html"));
+        Path gz = dir.resolve(from + ".html.gz");
+        if (Files.exists(gz)) Files.copy(gz, dir.resolve(to + ".html.gz"));
+    }
+
+    // 한 번 만들고 계속 내려주므로 최고 압축률로
+    private static byte[] gzip(byte[] raw) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, raw.length / 4));
+        try (GZIPOutputStream gz = new GZIPOutputStream(out) {{ def.setLevel(Deflater.BEST_COMPRESSION); }}) {
+            gz.write(raw);
+        }
+        return out.toByteArray();
+    }
+
+    // CURRENT / LATEST 파일의 버전 번호 (없거나 깨졌으면 0)
+    private static int readMarker(Path marker) {
+        try {
+            if (!Files.isRegularFile(marker)) return 0;
+            return Integer.parseInt(Files.readString(marker).trim());
+        } catch (IOException | NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static void writeMarker(Path projectDir, String name, int version) throws IOException {
+        Path tmp = projectDir.resolve(name + ".tmp");
+        Files.writeString(tmp, String.valueOf(version));
+        Files.move(tmp, projectDir.resolve(name), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static List<Integer> versionsOnDisk(Path projectDir) throws IOException {
+        List<Integer> versions = new ArrayList<>();
+        try (Stream<Path> dirs = Files.list(projectDir)) {
+            dirs.map(p -> p.getFileName().toString())
+                .filter(n -> n.matches("v\\d{1,9}"))
+                .forEach(n -> versions.add(Integer.parseInt(n.substring(1))));
+        }
+        return versions;
+    }
+
+    private static int latestVersionOnDisk(Path projectDir) throws IOException {
+        return versionsOnDisk(projectDir).stream().mapToInt(Integer::intValue).max().orElse(0);
+    }
+
+    private void pruneOldVersions(Path projectDir, int current) {
+        try {
+            for (int v : versionsOnDisk(projectDir)) {
+                if (v <= current - props.getKeepVersions()) deleteTree(projectDir.resolve("v" + v));
+            }
+        } catch (IOException e) {
+            System.out.println("❌ [Publish] 이전 버전 정리 실패 " + projectDir + " : " + e.getMessage());
+        }
+    }
+
+    private static void deleteTree(Path dir) throws IOException {
+        if (!Files.exists(dir)) return;
+        try (Stream<Path> walk = Files.walk(dir)) {
+            for (Path p : walk.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(p);
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.web_crafter_java.service;
+
+import com.example.web_crafter_java.dto.PagePatchOp;
+
+import java.util.List;
+
+/**
+ * ✅ 텍스트 patch 적용기
+ * - op들은 base 문자열 기준 위치(at)로, 오름차순이고 서로 겹치지 않아야 합니다.
+ * - base를 한 번만 훑으면서 결과를 만들기 때문에 O(base 길이 + insert 길이) 입니다.
+ * - 같은 op 형식을 patch 저장(PATCH /data)과 페이지 히스토리 delta에서 함께 씁니다.
+ */
+public final class TextPatch {
+
+    private TextPatch() {}
+
+    public static String apply(String base, List<PagePatchOp> ops) {
+        String src = base == null ? "" : base;
+        if (ops == null || ops.isEmpty()) return src;
+
+        StringBuilder out = new StringBuilder(src.length() + 256);
+        int cursor = 0; // base에서 아직 복사 안 한 시작 위치
+
+        for (PagePatchOp op : ops) {
+            int at = op.getAt();
+            int del = op.getDelete();
+
+            // at + del 은 int 범위를 넘을 수 있으므로 빼기로 비교
+            if (at < cursor || at > src.length() || del < 0 || del > src.length() - at) {
+                throw new IllegalArgumentException("PATCH_OUT_OF_RANGE");
+            }
+
+            out.append(src, cursor, at);
+            if (op.getInsert() != null) out.append(op.getInsert());
+            cursor = at + del;
+        }
+
+        out.append(src, cursor, src.length());
+        return out.toString();
+    }
+
+    /**
+     * before → after 로 가는 op 목록 (공통 앞/뒤를 잘라내고 가운데 한 구간만 교체)
+     * - 블록 하나 옮기기처럼 한 곳만 바뀌는 저장은 op 1개로 끝남
+     * - 교체 구간 경계는 서로게이트 쌍을 쪼개지 않음 (insert 문자열이 JSON 직렬화 후에도 온전하게)
+     * - 같으면 빈 목록
+     */
+    public static List<PagePatchOp> diff(String before, String after) {
+        String a = before == null ? "" : before;
+        String b = after == null ? "" : after;
+        if (a.equals(b)) return List.of();
+
+        int prefix = 0;
+        int max = Math.min(a.length(), b.length());
+        while (prefix < max && a.charAt(prefix) == b.charAt(prefix)) prefix++;
+        // 서로게이트 쌍(이모지 등) 가운데서 자르지 않도록 경계를 쌍 앞으로 물림
+        if (prefix > 0 && Character.isHighSurrogate(a.charAt(prefix - 1))) prefix--;
+
+        int suffix = 0;
+        while (suffix < max - prefix
+                && a.charAt(a.length() - 1 - suffix) == b.charAt(b.length() - 1 - suffix)) suffix++;
+        if (suffix > 0 && Character.isLowSurrogate(a.charAt(a.length() - suffix))) suffix--;
+
+        PagePatchOp op = new PagePatchOp();
+        op.setAt(prefix);
+        op.setDelete(a.length() - prefix - suffix);
+        op.setInsert(b.substring(prefix, b.length() - suffix));
+        return List.of(op);
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.web_crafter_java.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * ✅ 점수 상위 K개만 들고 있는 순위표
+ * - 점수 갱신은 O(log K) (TreeSet에서 빼고 다시 넣기), 상위 n개 읽기는 O(n)
+ * - 개수가 maxSize를 넘으면 가장 낮은 항목부터 버림 (버려진 항목은 다음 점수 갱신 때 다시 들어올 수 있음)
+ */
+public class TopKRanking {
+
+    private record Entry(Integer id, double score) {}
+
+    private static final Comparator<Entry> ORDER = Comparator
+            .comparingDouble(Entry::score).reversed()
+            .thenComparing(Entry::id, Comparator.reverseOrder());
+
+    private final int maxSize;
+    private final Map<Integer, Entry> byId = new HashMap<>();
+    private final TreeSet<Entry> ordered = new TreeSet<>(ORDER);
+
+    public TopKRanking(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public synchronized void add(Integer id, double delta) {
+        Entry old = byId.get(id);
+        put(id, (old == null ? 0 : old.score()) + delta);
+    }
+
+    // 순위표에 있는 항목만 갱신 (없는 항목은 전체 점수를 모르므로 다음 재계산 때 반영)
+    public synchronized void addIfPresent(Integer id, double delta) {
+        Entry old = byId.get(id);
+        if (old != null) put(id, old.score() + delta);
+    }
+
+    public synchronized void remove(Integer id) {
+        Entry old = byId.remove(id);
+        if (old != null) ordered.remove(old);
+    }
+
+    // 순위 offset부터 limit개의 id
+    public synchronized List<Integer> top(int offset, int limit) {
+        if (offset < 0 || limit < 0) throw new IllegalArgumentException("INVALID_RANGE");
+        List<Integer> ids = new ArrayList<>(Math.min(limit, byId.size())); // limit이 커도 있는 만큼만 할당
+        Iterator<Entry> it = ordered.iterator();
+        for (int i = 0; it.hasNext() && ids.size() < limit; i++) {
+            Entry e = it.next();
+            if (i >= offset) ids.add(e.id());
+        }
+        return ids;
+    }
+
+    // 전체를 새 값으로 교체 (백그라운드 재계산 결과)
+    public synchronized void replaceAll(Map<Integer, Double> scores) {
+        byId.clear();
+        ordered.clear();
+        scores.forEach(this::put);
+    }
+
+    // 모든 점수에 같은 배수를 곱함 (순서는 그대로, 숫자가 너무 커지지 않게)
+    public synchronized void scaleAll(double factor) {
+        List<Entry> all = new ArrayList<>(ordered);
+        byId.clear();
+        ordered.clear();
+        for (Entry e : all) put(e.id(), e.score() * factor);
+    }
+
+    public synchronized int size() {
+        return byId.size();
+    }
+
+    private void put(Integer id, double score) {
+        Entry old = byId.get(id);
+        if (old != null) ordered.remove(old);
+
+        Entry e = new Entry(id, score);
+        byId.put(id, e);
+        ordered.add(e);
+
+        while (ordered.size() > maxSize) {
+            Entry lowest = ordered.pollLast();
+            byId.remove(lowest.id());
+        }
+    }
+}
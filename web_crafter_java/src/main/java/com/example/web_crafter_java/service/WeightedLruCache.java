@@ -0,0 +1,101 @@
+package com.example.web_crafter_java.service;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * ✅ 크기(weight) 기준으로 제한되는 LRU 캐시
+ * - 값마다 weigher로 대략적인 바이트 크기를 계산하고, 합계가 maxWeight를 넘으면 가장 오래 안 쓴 것부터 버립니다.
+ * - getOrLoad()는 로딩하는 동안 invalidate가 한 번이라도 있었으면 결과를 캐시에 넣지 않습니다.
+ *   (로딩 중에 저장이 끼어들면 옛날 값이 캐시에 눌러앉는 문제 방지)
+ */
+public class WeightedLruCache<K, V> {
+
+    private final long maxWeight;
+    private final ToLongFunction<V> weigher;
+    private final LinkedHashMap<K, V> map = new LinkedHashMap<>(16, 0.75f, true); // accessOrder = LRU
+
+    private long weight;
+    private long invalidations;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public WeightedLruCache(long maxWeight, ToLongFunction<V> weigher) {
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+    }
+
+    public V getOrLoad(K key, Supplier<V> loader) {
+        long stamp;
+        synchronized (this) {
+            V cached = map.get(key);
+            if (cached != null) {
+                hits++;
+                return cached;
+            }
+            misses++;
+            stamp = invalidations;
+        }
+
+        V loaded = loader.get(); // DB 조회는 락 밖에서
+
+        if (loaded != null) {
+            synchronized (this) {
+                if (stamp == invalidations) put(key, loaded);
+            }
+        }
+        return loaded;
+    }
+
+    public synchronized V getIfPresent(K key) {
+        V cached = map.get(key);
+        if (cached != null) hits++; else misses++;
+        return cached;
+    }
+
+    public synchronized void put(K key, V value) {
+        long w = weigher.applyAsLong(value);
+        if (w > maxWeight) return; // 혼자서 한도를 넘는 값은 캐시하지 않음
+
+        V old = map.put(key, value);
+        if (old != null) weight -= weigher.applyAsLong(old);
+        weight += w;
+
+        Iterator<Map.Entry<K, V>> it = map.entrySet().iterator();
+        while (weight > maxWeight && it.hasNext()) {
+            Map.Entry<K, V> eldest = it.next();
+            weight -= weigher.applyAsLong(eldest.getValue());
+            it.remove();
+            evictions++;
+        }
+    }
+
+    public synchronized void invalidate(K key) {
+        invalidations++;
+        V old = map.remove(key);
+        if (old != null) weight -= weigher.applyAsLong(old);
+    }
+
+    public synchronized void invalidateIf(Predicate<K> condition) {
+        invalidations++;
+        Iterator<Map.Entry<K, V>> it = map.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<K, V> e = it.next();
+            if (condition.test(e.getKey())) {
+                weight -= weigher.applyAsLong(e.getValue());
+                it.remove();
+            }
+        }
+    }
+
+    public synchronized int size() { return map.size(); }
+    public synchronized long weight() { return weight; }
+    public synchronized long hits() { return hits; }
+    public synchronized long misses() { return misses; }
+    public synchronized long evictions() { return evictions; }
+}
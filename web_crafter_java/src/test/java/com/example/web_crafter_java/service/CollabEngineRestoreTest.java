@@ -0,0 +1,159 @@
+package com.example.web_crafter_java.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.example.web_crafter_java.config.CollabProperties;
+import com.example.web_crafter_java.dao.ProjectDao;
+import com.example.web_crafter_java.dto.CollabOp;
+import com.example.web_crafter_java.dto.CollabSync;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// 서버 시작 시 저널 op로 세션을 되살리는 경로 (CollabEngine.recover → restore)
+class CollabEngineRestoreTest {
+
+	private static final Integer WEB_ID = 7;
+
+	@TempDir
+	Path dir;
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final PageCache pageCache = mock(PageCache.class);
+	private final CollabBroadcaster broadcaster = mock(CollabBroadcaster.class);
+	private CollabProperties props;
+
+	@BeforeEach
+	void setUp() {
+		props = new CollabProperties();
+		props.setJournalDir(dir.toString());
+	}
+
+	@Test
+	void restoredSessionContinuesFromLastJournaledSeq() {
+		CollabEngine engine = engine(journalReturning(ops(101, 102, 103)));
+
+		CollabSync sync = engine.sync(WEB_ID, null, null, 101L);
+
+		assertThat(sync.getSeq()).isEqualTo(103L);
+		assertThat(sync.isReset()).isFalse();
+		assertThat(seqs(sync.getOps())).containsExactly(102L, 103L);
+	}
+
+	// 찢어진 꼬리는 CollabJournal이 잘라냄 → 엔진은 살아남은 마지막 op부터 이어감
+	@Test
+	void restoresFromRealJournalWithTornTail() throws IOException {
+		CollabJournal writer = new CollabJournal(props, objectMapper);
+		for (CollabOp op : ops(101, 102, 103)) writer.append(WEB_ID, op);
+		writer.forceOnShutdown();
+		try (Stream<Path> files = Files.list(dir.resolve(String.valueOf(WEB_ID)))) {
+			CollabJournalTest.corruptRecord(files.findFirst().orElseThrow(), 2); // 103은 쓰다 죽음
+		}
+
+		CollabEngine engine = engine(new CollabJournal(props, objectMapper));
+		engine.apply(WEB_ID, "s1", move());
+
+		assertThat(engine.sync(WEB_ID, null, null, 102L).getOps())
+				.extracting(CollabOp::getSeq)
+				.containsExactly(103L);
+	}
+
+	// seq가 건너뛴 구간 앞에서는 이어받을 수 없으니 reset, 그 뒤부터는 op로
+	@Test
+	void seqGapLimitsCatchUpToOpsAfterTheGap() {
+		CollabEngine engine = engine(journalReturning(ops(101, 102, 105, 106)));
+
+		CollabSync beforeGap = engine.sync(WEB_ID, null, null, 102L);
+		CollabSync afterGap = engine.sync(WEB_ID, null, null, 104L);
+
+		assertThat(beforeGap.isReset()).isTrue();
+		assertThat(beforeGap.getSeq()).isEqualTo(106L);
+		assertThat(afterGap.isReset()).isFalse();
+		assertThat(seqs(afterGap.getOps())).containsExactly(105L, 106L);
+	}
+
+	@Test
+	void opsAlreadyCoveredAreSkipped() {
+		CollabEngine engine = engine(journalReturning(ops(101, 102, 102, 101, 103)));
+
+		assertThat(seqs(engine.sync(WEB_ID, null, null, 100L).getOps())).containsExactly(101L, 102L, 103L);
+	}
+
+	// 복구가 실패하면 새 op를 받지 않고 저널도 지울 수 있게 표시하지 않음 → 다음 시도에서 복구
+	@Test
+	void failedRestoreRejectsOpsUntilRetrySucceeds() {
+		CollabOp pageOp = ops(101).get(0);
+		pageOp.setPageName("index");
+		pageOp.setMode("structure");
+		CollabJournal journal = journalReturning(List.of(pageOp));
+		when(pageCache.getPage(anyInt(), anyString(), any())).thenThrow(new IllegalStateException("db down"));
+
+		CollabEngine engine = engine(journal);
+
+		assertThat(engine.apply(WEB_ID, "s1", move())).isFalse();
+		assertThat(engine.sync(WEB_ID, null, null, null).getSeq()).isNull();
+		verify(journal, never()).confirmReplay(WEB_ID);
+		verify(journal, never()).append(any(), any());
+
+		doReturn(null).when(pageCache).getPage(anyInt(), anyString(), any()); // 페이지가 없어진 경우 → op만 거절되고 복구는 성공
+
+		assertThat(engine.apply(WEB_ID, "s1", move())).isTrue();
+		verify(journal).confirmReplay(WEB_ID);
+		assertThat(engine.sync(WEB_ID, null, null, null).getSeq()).isEqualTo(102L);
+	}
+
+	private CollabEngine engine(CollabJournal journal) {
+		CollabEngine engine = new CollabEngine(mock(ProjectDao.class), mock(PageSaveBuffer.class), pageCache,
+				objectMapper, props, broadcaster, journal);
+		engine.recover();
+		return engine;
+	}
+
+	private static CollabJournal journalReturning(List<CollabOp> ops) {
+		CollabJournal journal = mock(CollabJournal.class);
+		when(journal.replay()).thenReturn(Map.of(WEB_ID, ops));
+		return journal;
+	}
+
+	// 페이지/모드 없는 op → 문서에 적용하지 않고 순서만 매김 (DB를 읽지 않음)
+	private static List<CollabOp> ops(long... seqs) {
+		List<CollabOp> ops = new ArrayList<>();
+		for (long seq : seqs) {
+			CollabOp op = move();
+			op.setSeq(seq);
+			ops.add(op);
+		}
+		return ops;
+	}
+
+	private static CollabOp move() {
+		CollabOp op = new CollabOp();
+		op.setType(CollabOp.MOVE);
+		op.setBlockId("b1");
+		op.setX(10.0);
+		op.setY(20.0);
+		return op;
+	}
+
+	private static List<Long> seqs(List<CollabOp> ops) {
+		return ops.stream().map(CollabOp::getSeq).toList();
+	}
+}
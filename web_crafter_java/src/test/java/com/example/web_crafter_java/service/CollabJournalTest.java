@@ -0,0 +1,136 @@
+package com.example.web_crafter_java.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.example.web_crafter_java.config.CollabProperties;
+import com.example.web_crafter_java.dto.CollabOp;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class CollabJournalTest {
+
+	private static final Integer WEB_ID = 7;
+
+	@TempDir
+	Path dir;
+
+	private CollabProperties props;
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	@BeforeEach
+	void setUp() {
+		props = new CollabProperties();
+		props.setJournalDir(dir.toString());
+		props.setJournalSegmentBytes(4096);
+	}
+
+	@Test
+	void replayReturnsOpsInSeqOrderAcrossSegments() throws IOException {
+		props.setJournalSegmentBytes(64); // op 하나마다 새 세그먼트
+		CollabJournal writer = new CollabJournal(props, objectMapper);
+		for (long seq = 101; seq <= 104; seq++) writer.append(WEB_ID, op(seq));
+		writer.forceOnShutdown();
+
+		Map<Integer, List<CollabOp>> replayed = new CollabJournal(props, objectMapper).replay();
+
+		assertThat(seqs(replayed.get(WEB_ID))).containsExactly(101L, 102L, 103L, 104L);
+		assertThat(segmentFiles()).hasSize(4);
+	}
+
+	// 쓰다 죽은 마지막 레코드(CRC 불일치)에서 멈추고, 그 앞까지만 복구
+	@Test
+	void replayStopsAtTornTail() throws IOException {
+		CollabJournal writer = new CollabJournal(props, objectMapper);
+		for (long seq = 101; seq <= 103; seq++) writer.append(WEB_ID, op(seq));
+		writer.forceOnShutdown();
+
+		corruptRecord(segmentFiles().get(0), 2);
+
+		Map<Integer, List<CollabOp>> replayed = new CollabJournal(props, objectMapper).replay();
+
+		assertThat(seqs(replayed.get(WEB_ID))).containsExactly(101L, 102L);
+	}
+
+	@Test
+	void truncateKeepsUnreplayedSegmentsUntilConfirmed() throws IOException {
+		CollabJournal writer = new CollabJournal(props, objectMapper);
+		writer.append(WEB_ID, op(101));
+		writer.forceOnShutdown();
+
+		CollabJournal journal = new CollabJournal(props, objectMapper);
+		assertThat(journal.replay()).containsKey(WEB_ID);
+
+		journal.truncate(WEB_ID, Long.MAX_VALUE);
+		assertThat(segmentFiles()).hasSize(1);
+
+		journal.confirmReplay(WEB_ID);
+		journal.truncate(WEB_ID, Long.MAX_VALUE);
+		assertThat(segmentFiles()).isEmpty();
+	}
+
+	@Test
+	void truncateOnlyDropsSegmentsCoveredByCheckpoint() throws IOException {
+		props.setJournalSegmentBytes(64);
+		CollabJournal journal = new CollabJournal(props, objectMapper);
+		for (long seq = 101; seq <= 103; seq++) journal.append(WEB_ID, op(seq));
+
+		journal.truncate(WEB_ID, 102);
+
+		assertThat(segmentFiles()).hasSize(1);
+		journal.forceOnShutdown();
+		assertThat(seqs(new CollabJournal(props, objectMapper).replay().get(WEB_ID))).containsExactly(103L);
+	}
+
+	private static CollabOp op(long seq) {
+		CollabOp op = new CollabOp();
+		op.setSeq(seq);
+		op.setType(CollabOp.MOVE);
+		op.setBlockId("b" + seq);
+		op.setX(10.0);
+		op.setY(20.0);
+		return op;
+	}
+
+	private static List<Long> seqs(List<CollabOp> ops) {
+		return ops.stream().map(CollabOp::getSeq).toList();
+	}
+
+	private List<Path> segmentFiles() throws IOException {
+		Path projectDir = dir.resolve(String.valueOf(WEB_ID));
+		if (!Files.isDirectory(projectDir)) return List.of();
+		try (Stream<Path> files = Files.list(projectDir)) {
+			return files.sorted().toList();
+		}
+	}
+
+	// index번째 레코드의 본문 첫 바이트를 뒤집음 (길이는 그대로, CRC만 안 맞게)
+	static void corruptRecord(Path file, int index) throws IOException {
+		try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			ByteBuffer header = ByteBuffer.allocate(4);
+			long pos = 0;
+			for (int i = 0; i < index; i++) {
+				header.clear();
+				ch.read(header, pos);
+				pos += 8 + header.getInt(0);
+			}
+			ByteBuffer b = ByteBuffer.allocate(1);
+			ch.read(b, pos + 8);
+			b.put(0, (byte) (b.get(0) ^ 0xFF));
+			b.rewind();
+			ch.write(b, pos + 8);
+		}
+	}
+}
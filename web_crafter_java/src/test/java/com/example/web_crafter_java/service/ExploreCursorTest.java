@@ -0,0 +1,61 @@
+package com.example.web_crafter_java.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import org.junit.jupiter.api.Test;
+
+class ExploreCursorTest {
+
+	@Test
+	void roundTripsWithoutScore() {
+		ExploreCursor cursor = new ExploreCursor(LocalDateTime.of(2025, 3, 1, 12, 30, 5, 123_000_000), 42L, null);
+
+		assertThat(ExploreCursor.decode(cursor.encode())).isEqualTo(cursor);
+	}
+
+	@Test
+	void roundTripsWithScore() {
+		ExploreCursor cursor = new ExploreCursor(LocalDateTime.of(2025, 3, 1, 0, 0), 7L, 980L);
+
+		assertThat(ExploreCursor.decode(cursor.encode())).isEqualTo(cursor);
+	}
+
+	@Test
+	void encodedTokenIsUrlSafeWithoutPadding() {
+		String token = new ExploreCursor(LocalDateTime.of(2025, 12, 31, 23, 59, 59), 123456789L, 1L).encode();
+
+		assertThat(token).doesNotContain("+", "/", "=");
+	}
+
+	@Test
+	void blankTokenMeansFirstPage() {
+		assertThat(ExploreCursor.decode(null)).isNull();
+		assertThat(ExploreCursor.decode("")).isNull();
+		assertThat(ExploreCursor.decode("   ")).isNull();
+	}
+
+	@Test
+	void malformedTokensAreRejected() {
+		String[] tokens = {
+				"not base64!",                       // base64url가 아님
+				encode("2025-03-01T00:00"),          // id 없음
+				encode("yesterday|1"),               // 날짜 형식 틀림
+				encode("2025-03-01T00:00|abc"),      // id가 숫자가 아님
+				encode("2025-03-01T00:00|1|high"),   // 점수가 숫자가 아님
+		};
+		for (String token : tokens) {
+			assertThatThrownBy(() -> ExploreCursor.decode(token))
+					.isInstanceOf(IllegalArgumentException.class)
+					.hasMessage("INVALID_CURSOR");
+		}
+	}
+
+	private static String encode(String raw) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,100 @@
+package com.example.web_crafter_java.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.web_crafter_java.dto.PagePatchOp;
+
+class TextPatchTest {
+
+	@Test
+	void diffOfEqualTextsIsEmpty() {
+		assertThat(TextPatch.diff("abc", "abc")).isEmpty();
+		assertThat(TextPatch.diff(null, "")).isEmpty();
+	}
+
+	@Test
+	void diffReplacesOnlyTheChangedMiddle() {
+		List<PagePatchOp> ops = TextPatch.diff("{\"x\":10,\"y\":20}", "{\"x\":15,\"y\":20}");
+
+		assertThat(ops).hasSize(1);
+		PagePatchOp op = ops.get(0);
+		assertThat(op.getAt()).isEqualTo(6);
+		assertThat(op.getDelete()).isEqualTo(1);
+		assertThat(op.getInsert()).isEqualTo("5");
+	}
+
+	@Test
+	void diffThenApplyRoundTrips() {
+		String[][] cases = {
+				{ "", "abc" },
+				{ "abc", "" },
+				{ "hello world", "hello brave new world" },
+				{ "aaaa", "aa" },
+				{ null, "text" },
+		};
+		for (String[] c : cases) {
+			assertThat(TextPatch.apply(c[0], TextPatch.diff(c[0], c[1]))).isEqualTo(c[1]);
+		}
+	}
+
+	// U+1F600 / U+1F603: high surrogate(\uD83D)가 같음 → 공통 앞부분이 쌍 가운데서 끝나면 안 됨
+	@Test
+	void diffDoesNotSplitSurrogatePairAtPrefix() {
+		String before = "a\uD83D\uDE00b";
+		String after = "a\uD83D\uDE03b";
+
+		PagePatchOp op = TextPatch.diff(before, after).get(0);
+
+		assertThat(op.getAt()).isEqualTo(1);
+		assertThat(op.getDelete()).isEqualTo(2);
+		assertThat(op.getInsert()).isEqualTo("\uD83D\uDE03");
+		assertThat(TextPatch.apply(before, List.of(op))).isEqualTo(after);
+	}
+
+	// U+1F200 / U+1F600: low surrogate(\uDE00)가 같음 → 공통 뒷부분이 쌍 가운데서 시작하면 안 됨
+	@Test
+	void diffDoesNotSplitSurrogatePairAtSuffix() {
+		String before = "a\uD83C\uDE00b";
+		String after = "a\uD83D\uDE00b";
+
+		PagePatchOp op = TextPatch.diff(before, after).get(0);
+
+		assertThat(op.getInsert()).isEqualTo("\uD83D\uDE00");
+		assertThat(Character.isHighSurrogate(op.getInsert().charAt(0))).isTrue();
+		assertThat(TextPatch.apply(before, List.of(op))).isEqualTo(after);
+	}
+
+	@Test
+	void applyRunsOpsInOrder() {
+		PagePatchOp first = op(0, 1, "A");
+		PagePatchOp second = op(3, 2, null);
+
+		assertThat(TextPatch.apply("abcdef", List.of(first, second))).isEqualTo("Abcf");
+	}
+
+	@Test
+	void applyRejectsOutOfRangeOrOverlappingOps() {
+		assertThatThrownBy(() -> TextPatch.apply("abc", List.of(op(4, 0, "x"))))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessage("PATCH_OUT_OF_RANGE");
+		assertThatThrownBy(() -> TextPatch.apply("abc", List.of(op(1, 3, null))))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> TextPatch.apply("abc", List.of(op(2, 0, "x"), op(1, 0, "y"))))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> TextPatch.apply("abc", List.of(op(1, Integer.MAX_VALUE, null))))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	private static PagePatchOp op(int at, int delete, String insert) {
+		PagePatchOp op = new PagePatchOp();
+		op.setAt(at);
+		op.setDelete(delete);
+		op.setInsert(insert);
+		return op;
+	}
+}
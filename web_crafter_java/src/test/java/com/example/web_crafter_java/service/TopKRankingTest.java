@@ -0,0 +1,92 @@
+package com.example.web_crafter_java.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class TopKRankingTest {
+
+	@Test
+	void topReturnsHighestScoresFirst() {
+		TopKRanking ranking = new TopKRanking(10);
+		ranking.add(1, 5);
+		ranking.add(2, 30);
+		ranking.add(3, 12);
+
+		assertThat(ranking.top(0, 10)).containsExactly(2, 3, 1);
+	}
+
+	// 점수가 같으면 id가 큰(최신) 프로젝트가 먼저 → 페이지를 넘겨도 순서가 흔들리지 않음
+	@Test
+	void tiesAreOrderedByIdDescending() {
+		TopKRanking ranking = new TopKRanking(10);
+		ranking.add(4, 7);
+		ranking.add(9, 7);
+		ranking.add(6, 7);
+
+		assertThat(ranking.top(0, 3)).containsExactly(9, 6, 4);
+	}
+
+	@Test
+	void addAccumulatesAndReorders() {
+		TopKRanking ranking = new TopKRanking(10);
+		ranking.add(1, 10);
+		ranking.add(2, 8);
+		ranking.add(2, 5);
+
+		assertThat(ranking.top(0, 2)).containsExactly(2, 1);
+		assertThat(ranking.size()).isEqualTo(2);
+	}
+
+	@Test
+	void dropsLowestBeyondMaxSize() {
+		TopKRanking ranking = new TopKRanking(2);
+		ranking.add(1, 1);
+		ranking.add(2, 2);
+		ranking.add(3, 3);
+
+		assertThat(ranking.size()).isEqualTo(2);
+		assertThat(ranking.top(0, 10)).containsExactly(3, 2);
+
+		// 버려진 항목은 addIfPresent로는 돌아오지 않음
+		ranking.addIfPresent(1, 100);
+		assertThat(ranking.top(0, 10)).containsExactly(3, 2);
+	}
+
+	@Test
+	void topPagesWithOffsetAndLimit() {
+		TopKRanking ranking = new TopKRanking(10);
+		ranking.replaceAll(Map.of(1, 1.0, 2, 2.0, 3, 3.0, 4, 4.0, 5, 5.0));
+
+		assertThat(ranking.top(1, 2)).containsExactly(4, 3);
+		assertThat(ranking.top(4, 10)).containsExactly(1);
+		assertThat(ranking.top(5, 10)).isEmpty();
+		assertThat(ranking.top(0, 0)).isEmpty();
+		assertThat(ranking.top(0, Integer.MAX_VALUE)).hasSize(5);
+	}
+
+	@Test
+	void topRejectsNegativeRange() {
+		TopKRanking ranking = new TopKRanking(10);
+
+		assertThatThrownBy(() -> ranking.top(-1, 10)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> ranking.top(0, -1)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void scaleAllKeepsOrderAndRemoveDropsEntry() {
+		TopKRanking ranking = new TopKRanking(10);
+		ranking.add(1, 10);
+		ranking.add(2, 20);
+		ranking.scaleAll(0.5);
+		ranking.add(1, 6); // 5 + 6 = 11 > 10
+
+		assertThat(ranking.top(0, 10)).containsExactly(1, 2);
+
+		ranking.remove(1);
+		assertThat(ranking.top(0, 10)).containsExactly(2);
+	}
+}